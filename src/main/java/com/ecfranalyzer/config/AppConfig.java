@@ -1,25 +1,30 @@
 package com.ecfranalyzer.config;
 
+import com.ecfranalyzer.controller.DataVersionEtagInterceptor;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableCaching
 public class AppConfig {
 
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    @Bean(name = "ingestionExecutor", destroyMethod = "shutdown")
+    public ExecutorService ingestionExecutor(@Value("${ecfr.ingest.worker-threads:4}") int workerThreads) {
+        return Executors.newFixedThreadPool(workerThreads, new CustomizableThreadFactory("title-ingest-"));
     }
 
     @Bean
@@ -30,7 +35,19 @@ public class AppConfig {
                 registry.addMapping("/**")
                         .allowedOrigins("*")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
-                        .allowedHeaders("*");
+                        .allowedHeaders("*")
+                        .exposedHeaders("ETag", "X-Next-Cursor");
+            }
+        };
+    }
+
+    @Bean
+    public WebMvcConfigurer dataVersionEtagConfigurer(DataVersionEtagInterceptor dataVersionEtagInterceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(dataVersionEtagInterceptor)
+                        .addPathPatterns("/api/analytics/**", "/api/titles/**", "/api/agencies/**", "/api/search/**");
             }
         };
     }
@@ -42,7 +59,7 @@ public class AppConfig {
                 "agencies", "titles", "corrections", "corrections-by-title",
                 "search-results", "search-count", "search-summary",
                 "counts-daily", "counts-titles", "counts-hierarchy",
-                "suggestions", "ancestry", "structure", "versions"
+                "suggestions", "ancestry", "versions"
         ));
         cacheManager.setCaffeine(caffeineCacheBuilder());
         return cacheManager;
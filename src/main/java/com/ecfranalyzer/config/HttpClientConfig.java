@@ -0,0 +1,152 @@
+package com.ecfranalyzer.config;
+
+import com.ecfranalyzer.service.EcfrAsyncApiService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * HTTP transport for the eCFR API: Apache HttpClient 5 with a pooled connection manager,
+ * keep-alive reuse, transparent gzip/deflate decoding and connect/read timeouts.
+ * <p>
+ * The asynchronous client used for fan-out queries gets its own pool with the same limits and timeouts.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${ecfr.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${ecfr.http.max-connections-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${ecfr.http.connect-timeout:10s}")
+    private Duration connectTimeout;
+
+    @Value("${ecfr.http.read-timeout:120s}")
+    private Duration readTimeout;
+
+    @Value("${ecfr.http.connection-request-timeout:30s}")
+    private Duration connectionRequestTimeout;
+
+    @Value("${ecfr.http.keep-alive:60s}")
+    private Duration keepAlive;
+
+    @Value("${ecfr.http.idle-eviction:30s}")
+    private Duration idleEviction;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager ecfrConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(connectionConfig())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient ecfrHttpClient(PoolingHttpClientConnectionManager ecfrConnectionManager) {
+        // Content compression is on by default: gzip/deflate is requested and decoded transparently
+        return HttpClients.custom()
+                .setConnectionManager(ecfrConnectionManager)
+                .setDefaultRequestConfig(requestConfig())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEviction))
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public PoolingAsyncClientConnectionManager ecfrAsyncConnectionManager() {
+        return PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(connectionConfig())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpAsyncClient ecfrAsyncHttpClient(PoolingAsyncClientConnectionManager ecfrAsyncConnectionManager) {
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(ecfrAsyncConnectionManager)
+                .setIOReactorConfig(IOReactorConfig.custom()
+                        .setSoTimeout(Timeout.of(readTimeout))
+                        .build())
+                .setDefaultRequestConfig(requestConfig())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEviction))
+                .build();
+        client.start();
+        return client;
+    }
+
+    @Bean
+    public RestTemplate restTemplate(CloseableHttpClient ecfrHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(ecfrHttpClient));
+    }
+
+    /**
+     * Publishes pool gauges (available, leased, pending, max) under the {@code httpcomponents.httpclient.pool} meters
+     */
+    @Bean
+    public MeterBinder ecfrConnectionPoolMetrics(PoolingHttpClientConnectionManager ecfrConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(ecfrConnectionManager, "ecfr");
+    }
+
+    @Bean
+    public MeterBinder ecfrAsyncConnectionPoolMetrics(PoolingAsyncClientConnectionManager ecfrAsyncConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(ecfrAsyncConnectionManager, "ecfr-async");
+    }
+
+    /**
+     * Publishes the async client's request limiter as {@code ecfr.async.requests} gauges, tagged running or queued
+     */
+    @Bean
+    public MeterBinder ecfrAsyncRequestMetrics(EcfrAsyncApiService ecfrAsyncApiService) {
+        return registry -> {
+            Gauge.builder("ecfr.async.requests", ecfrAsyncApiService, EcfrAsyncApiService::getRunningRequests)
+                    .tag("state", "running")
+                    .register(registry);
+            Gauge.builder("ecfr.async.requests", ecfrAsyncApiService, EcfrAsyncApiService::getQueuedRequests)
+                    .tag("state", "queued")
+                    .register(registry);
+        };
+    }
+
+    private ConnectionConfig connectionConfig() {
+        return ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(connectTimeout))
+                .setSocketTimeout(Timeout.of(readTimeout))
+                // Re-check connections that sat idle in the pool before reusing them
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build();
+    }
+
+    private RequestConfig requestConfig() {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                .setResponseTimeout(Timeout.of(readTimeout))
+                // Used when the server does not send a Keep-Alive header
+                .setConnectionKeepAlive(TimeValue.of(keepAlive))
+                .build();
+    }
+}
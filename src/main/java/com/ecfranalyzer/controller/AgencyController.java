@@ -1,10 +1,12 @@
 package com.ecfranalyzer.controller;
 
-import com.ecfranalyzer.model.Agency;
-import com.ecfranalyzer.model.Title;
+import com.ecfranalyzer.model.dto.AgencySummary;
+import com.ecfranalyzer.model.dto.TitleSummary;
 import com.ecfranalyzer.repository.AgencyRepository;
 import com.ecfranalyzer.repository.TitleRepository;
+import com.ecfranalyzer.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,29 +24,38 @@ public class AgencyController {
     private TitleRepository titleRepository;
 
     @GetMapping
-    public List<Agency> getAllAgencies() {
-        return agencyRepository.findAll();
+    public ResponseEntity<List<AgencySummary>> getAllAgencies(@RequestParam(required = false) Integer limit,
+                                                              @RequestParam(required = false) String cursor) {
+        if (!KeysetPages.isPaged(limit, cursor)) {
+            return ResponseEntity.ok(agencyRepository.findSummaries(Limit.unlimited()));
+        }
+
+        int pageSize = KeysetPages.pageSize(limit);
+        List<AgencySummary> rows = cursor == null
+                ? agencyRepository.findSummaries(KeysetPages.fetchLimit(pageSize))
+                : agencyRepository.findSummariesAfter(KeysetPages.decode(cursor, 1)[0], KeysetPages.fetchLimit(pageSize));
+        return KeysetPages.toResponse(rows, pageSize, agency -> KeysetCursor.encode(agency.id()));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Agency> getAgencyById(@PathVariable String id) {
-        Optional<Agency> agency = agencyRepository.findById(id);
+    public ResponseEntity<AgencySummary> getAgencyById(@PathVariable String id) {
+        Optional<AgencySummary> agency = agencyRepository.findSummaryById(id);
         return agency.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/search")
-    public List<Agency> searchAgencies(@RequestParam String name) {
-        return agencyRepository.findByNameContainingIgnoreCase(name);
+    public List<AgencySummary> searchAgencies(@RequestParam String name) {
+        return agencyRepository.findSummariesByNameContainingIgnoreCase(name);
     }
 
     @GetMapping("/{id}/titles")
-    public List<Title> getTitlesByAgency(@PathVariable String id) {
-        return titleRepository.findByAgencyId(id);
+    public List<TitleSummary> getTitlesByAgency(@PathVariable String id) {
+        return titleRepository.findSummariesByAgencyId(id);
     }
 
     @GetMapping("/by-title-count")
-    public List<Agency> getAgenciesByTitleCount() {
-        return agencyRepository.findAllOrderByTitleCountDesc();
+    public List<AgencySummary> getAgenciesByTitleCount() {
+        return agencyRepository.findSummariesOrderByTitleCountDesc();
     }
-}
\ No newline at end of file
+}
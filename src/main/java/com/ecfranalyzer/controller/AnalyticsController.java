@@ -1,12 +1,18 @@
 package com.ecfranalyzer.controller;
 
 import com.ecfranalyzer.model.analytics.ChangeFrequencyResult;
+import com.ecfranalyzer.model.analytics.TimeBucket;
 import com.ecfranalyzer.model.analytics.WordCountResult;
 import com.ecfranalyzer.service.AnalyticsService;
 import com.ecfranalyzer.service.SummaryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -44,6 +50,35 @@ public class AnalyticsController {
         return analyticsService.getChangeFrequencyByTitle();
     }
 
+    /**
+     * Change counts between two dates in day, month, quarter or year buckets, for one agency,
+     * one title or all titles, by the date the error occurred or was corrected
+     */
+    @GetMapping("/change-frequency/series")
+    public ResponseEntity<ChangeFrequencyResult> getChangeFrequencySeries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "year") String bucket,
+            @RequestParam(required = false) String agencyId,
+            @RequestParam(required = false) String titleId,
+            @RequestParam(defaultValue = "occurred") String date) {
+        if (agencyId != null && titleId != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Specify agencyId or titleId, not both");
+        }
+        if (!date.equals("occurred") && !date.equals("corrected")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "date must be occurred or corrected");
+        }
+
+        try {
+            return analyticsService.getChangeSeries(agencyId, titleId, from, to, TimeBucket.parse(bucket),
+                            date.equals("corrected"))
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     @GetMapping("/summary")
     public String getSummary() {
         return summaryService.generateSummary();
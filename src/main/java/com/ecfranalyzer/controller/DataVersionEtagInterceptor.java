@@ -0,0 +1,38 @@
+package com.ecfranalyzer.controller;
+
+import com.ecfranalyzer.service.DataVersionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Answers conditional GETs on read endpoints from the data version alone.
+ * <p>
+ * Every response carries the current data version as its ETag, and a request whose
+ * If-None-Match matches it gets a 304 before the controller runs, so neither the
+ * repositories nor Jackson are touched.
+ */
+@Component
+public class DataVersionEtagInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+
+        // Clients may keep responses, but must revalidate them before reuse
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        // Sets the ETag header, and the 304 status when it matches
+        return !new ServletWebRequest(request, response).checkNotModified(dataVersionService.etag());
+    }
+}
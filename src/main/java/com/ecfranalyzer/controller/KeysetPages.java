@@ -0,0 +1,66 @@
+package com.ecfranalyzer.controller;
+
+import com.ecfranalyzer.util.KeysetCursor;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination for listing endpoints.
+ * <p>
+ * A listing is paged when the request has a {@code limit} or a {@code cursor}. The body stays a
+ * plain JSON array; the cursor for the next page, if there is one, is sent in {@value #NEXT_CURSOR_HEADER}.
+ */
+final class KeysetPages {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private KeysetPages() {
+    }
+
+    static boolean isPaged(Integer limit, String cursor) {
+        return limit != null || cursor != null;
+    }
+
+    static int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be at least 1");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * One row more than the page size, to tell whether another page follows
+     */
+    static Limit fetchLimit(int pageSize) {
+        return Limit.of(pageSize + 1);
+    }
+
+    static String[] decode(String cursor, int keyCount) {
+        try {
+            return KeysetCursor.decode(cursor, keyCount);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed cursor");
+        }
+    }
+
+    static <T> ResponseEntity<List<T>> toResponse(List<T> rows, int pageSize, Function<T, String> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return ResponseEntity.ok(rows);
+        }
+        List<T> page = rows.subList(0, pageSize);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, cursorOf.apply(page.get(pageSize - 1)))
+                .body(page);
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecfranalyzer.controller;
+
+import com.ecfranalyzer.model.dto.SearchResults;
+import com.ecfranalyzer.service.SearchIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    /**
+     * Full-text search of ingested section text, answered from the local index.
+     * Supports AND (implicit), OR, NOT or '-', parentheses and "quoted phrases".
+     */
+    @GetMapping
+    public SearchResults search(@RequestParam String q,
+                                @RequestParam(required = false) String agencyId,
+                                @RequestParam(required = false) String titleId,
+                                @RequestParam(defaultValue = "20") int limit) {
+        if (!searchIndexService.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Local search is disabled");
+        }
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be at least 1");
+        }
+
+        try {
+            return searchIndexService.search(q, agencyId, titleId, Math.min(limit, MAX_LIMIT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.ecfranalyzer.controller;
 
-import com.ecfranalyzer.model.Section;
-import com.ecfranalyzer.model.Title;
+import com.ecfranalyzer.model.dto.SectionSummary;
+import com.ecfranalyzer.model.dto.TitleSummary;
 import com.ecfranalyzer.repository.SectionRepository;
 import com.ecfranalyzer.repository.TitleRepository;
+import com.ecfranalyzer.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,49 +24,69 @@ public class TitleController {
     private SectionRepository sectionRepository;
 
     @GetMapping
-    public List<Title> getAllTitles() {
-        return titleRepository.findAll();
+    public ResponseEntity<List<TitleSummary>> getAllTitles(@RequestParam(required = false) Integer limit,
+                                                           @RequestParam(required = false) String cursor) {
+        if (!KeysetPages.isPaged(limit, cursor)) {
+            return ResponseEntity.ok(titleRepository.findSummaries(Limit.unlimited()));
+        }
+
+        int pageSize = KeysetPages.pageSize(limit);
+        List<TitleSummary> rows = cursor == null
+                ? titleRepository.findSummaries(KeysetPages.fetchLimit(pageSize))
+                : titleRepository.findSummariesAfter(KeysetPages.decode(cursor, 1)[0], KeysetPages.fetchLimit(pageSize));
+        return KeysetPages.toResponse(rows, pageSize, title -> KeysetCursor.encode(title.id()));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Title> getTitleById(@PathVariable String id) {
-        Optional<Title> title = titleRepository.findById(id);
+    public ResponseEntity<TitleSummary> getTitleById(@PathVariable String id) {
+        Optional<TitleSummary> title = titleRepository.findSummaryById(id);
         return title.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/number/{number}")
-    public ResponseEntity<Title> getTitleByNumber(@PathVariable String number) {
-        // Updated to use the corrected method name
-        Title title = titleRepository.findByTitleNumber(number);
-        return title != null
-                ? ResponseEntity.ok(title)
-                : ResponseEntity.notFound().build();
+    public ResponseEntity<TitleSummary> getTitleByNumber(@PathVariable String number) {
+        return titleRepository.findSummaryByTitleNumber(number)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/search")
-    public List<Title> searchTitles(@RequestParam String name) {
-        return titleRepository.findByNameContainingIgnoreCase(name);
+    public List<TitleSummary> searchTitles(@RequestParam String name) {
+        return titleRepository.findSummariesByNameContainingIgnoreCase(name);
     }
 
     @GetMapping("/{id}/sections")
-    public List<Section> getSectionsByTitle(@PathVariable String id) {
-        return sectionRepository.findByTitleId(id);
+    public ResponseEntity<List<SectionSummary>> getSectionsByTitle(@PathVariable String id,
+                                                                   @RequestParam(required = false) Integer limit,
+                                                                   @RequestParam(required = false) String cursor) {
+        if (!KeysetPages.isPaged(limit, cursor)) {
+            return ResponseEntity.ok(sectionRepository.findSummariesByTitleId(id, Limit.unlimited()));
+        }
+
+        int pageSize = KeysetPages.pageSize(limit);
+        List<SectionSummary> rows;
+        if (cursor == null) {
+            rows = sectionRepository.findSummariesByTitleId(id, KeysetPages.fetchLimit(pageSize));
+        } else {
+            String[] after = KeysetPages.decode(cursor, 2);
+            rows = sectionRepository.findSummariesByTitleIdAfter(id, after[0], after[1], KeysetPages.fetchLimit(pageSize));
+        }
+        return KeysetPages.toResponse(rows, pageSize, section -> KeysetCursor.encode(section.number(), section.id()));
     }
 
     @GetMapping("/by-word-count")
-    public List<Title> getTitlesByWordCount() {
-        // Updated to use the simplified method
-        return titleRepository.findAllByOrderByWordCountDesc();
+    public List<TitleSummary> getTitlesByWordCount() {
+        return titleRepository.findSummariesOrderByWordCountDesc();
     }
 
     @GetMapping("/by-agency/{agencyId}")
-    public List<Title> getTitlesByAgency(@PathVariable String agencyId) {
-        return titleRepository.findByAgencyId(agencyId);
+    public List<TitleSummary> getTitlesByAgency(@PathVariable String agencyId) {
+        return titleRepository.findSummariesByAgencyId(agencyId);
     }
 
     @GetMapping("/by-agency/{agencyId}/by-word-count")
-    public List<Title> getTitlesByAgencyOrderByWordCount(@PathVariable String agencyId) {
-        return titleRepository.findByAgencyIdOrderByWordCountDesc(agencyId);
+    public List<TitleSummary> getTitlesByAgencyOrderByWordCount(@PathVariable String agencyId) {
+        return titleRepository.findSummariesByAgencyIdOrderByWordCountDesc(agencyId);
     }
-}
\ No newline at end of file
+}
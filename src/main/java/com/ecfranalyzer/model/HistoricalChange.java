@@ -34,6 +34,7 @@ public class HistoricalChange {
 
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "historical_change_id")
+    @Builder.Default
     private List<CfrReference> cfrReferences = new ArrayList<>();
 
     @Data
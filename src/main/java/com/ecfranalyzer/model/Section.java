@@ -10,6 +10,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_section_title_number_id", columnList = "title_id, number, id"))
 @Data
 @Builder
 @NoArgsConstructor
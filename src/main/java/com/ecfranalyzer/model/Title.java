@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -38,4 +39,9 @@ public class Title {
 
     private Integer wordCount;
     private Integer totalChanges;
+
+    // Version of the title that was last fully ingested
+    private LocalDate ingestedAmendedOn;
+    private LocalDate ingestedIssueDate;
+    private LocalDateTime lastIngested;
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.ecfranalyzer.model.analytics;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, precomputed analytics results. All lists are already sorted the way the
+ * analytics endpoints return them; maps are keyed by agency, title or title id.
+ * The columnar store the results were computed from is kept for ad-hoc group-bys, and
+ * change dates are indexed for range and series queries.
+ */
+@Value
+@Builder
+public class AnalyticsSnapshot {
+    Instant builtAt;
+    ColumnarAnalyticsStore columns;
+    ChangeTimeSeriesIndex changesByErrorOccurred;
+    ChangeTimeSeriesIndex changesByErrorCorrected;
+    List<WordCountResult> wordCountsByAgency;
+    List<WordCountResult> wordCountsByTitle;
+    List<ChangeFrequencyResult> changeFrequencyByAgency;
+    List<ChangeFrequencyResult> changeFrequencyByTitle;
+    Map<String, Map<Integer, Integer>> changeCountsByYearByAgency;
+    Map<String, Map<Integer, Integer>> changeCountsByYearByTitle;
+}
@@ -15,7 +15,7 @@ import java.util.Map;
 public class ChangeFrequencyResult {
     private String entityId;
     private String entityName;
-    private String entityType; // AGENCY, TITLE, SECTION
+    private String entityType; // AGENCY, TITLE, SECTION, ALL
     private Integer totalChanges;
     private Map<LocalDate, Integer> changesByDate;
     private Double changesPerYear;
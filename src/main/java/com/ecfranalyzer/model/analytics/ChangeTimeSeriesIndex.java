@@ -0,0 +1,163 @@
+package com.ecfranalyzer.model.analytics;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Sorted epoch-day index of historical changes, overall and per title and agency ordinal of a
+ * {@link ColumnarAnalyticsStore}. Each group is a sorted run of one shared {@code int[]}, so the
+ * position of a day in the run is the prefix count of changes before it, and any range count is
+ * two binary searches. Undated changes are not indexed.
+ */
+public final class ChangeTimeSeriesIndex {
+
+    private final Slice all;
+    private final int[] titleDays;
+    private final int[] titleOffsets;
+    private final int[] agencyDays;
+    private final int[] agencyOffsets;
+
+    private ChangeTimeSeriesIndex(ColumnarAnalyticsStore store, IntUnaryOperator epochDayOfChange) {
+        int[] allDays = new int[store.changeCount()];
+        int dated = 0;
+        for (int c = 0; c < store.changeCount(); c++) {
+            int day = epochDayOfChange.applyAsInt(c);
+            if (day != ColumnarAnalyticsStore.NO_DATE) {
+                allDays[dated++] = day;
+            }
+        }
+        allDays = Arrays.copyOf(allDays, dated);
+        Arrays.sort(allDays);
+        all = new Slice(allDays, 0, dated);
+
+        titleOffsets = new int[store.titleCount() + 1];
+        titleDays = groupDays(store, epochDayOfChange, store::changeTitle, titleOffsets);
+        agencyOffsets = new int[store.agencyCount() + 1];
+        agencyDays = groupDays(store, epochDayOfChange, store::changeAgency, agencyOffsets);
+    }
+
+    /**
+     * Index the changes of the store by the epoch day the operator returns for each change ordinal
+     */
+    public static ChangeTimeSeriesIndex build(ColumnarAnalyticsStore store, IntUnaryOperator epochDayOfChange) {
+        return new ChangeTimeSeriesIndex(store, epochDayOfChange);
+    }
+
+    public Slice all() {
+        return all;
+    }
+
+    public Slice title(int title) {
+        return new Slice(titleDays, titleOffsets[title], titleOffsets[title + 1]);
+    }
+
+    public Slice agency(int agency) {
+        return new Slice(agencyDays, agencyOffsets[agency], agencyOffsets[agency + 1]);
+    }
+
+    /**
+     * Counting sort of dated changes by group, then a sort of each group's run of days
+     */
+    private static int[] groupDays(ColumnarAnalyticsStore store, IntUnaryOperator epochDayOfChange,
+                                   IntUnaryOperator groupOfChange, int[] offsets) {
+        for (int c = 0; c < store.changeCount(); c++) {
+            int group = groupOfChange.applyAsInt(c);
+            int day = epochDayOfChange.applyAsInt(c);
+            if (group != ColumnarAnalyticsStore.NO_ORDINAL && day != ColumnarAnalyticsStore.NO_DATE) {
+                offsets[group + 1]++;
+            }
+        }
+        for (int g = 0; g < offsets.length - 1; g++) {
+            offsets[g + 1] += offsets[g];
+        }
+
+        int[] days = new int[offsets[offsets.length - 1]];
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int c = 0; c < store.changeCount(); c++) {
+            int group = groupOfChange.applyAsInt(c);
+            int day = epochDayOfChange.applyAsInt(c);
+            if (group != ColumnarAnalyticsStore.NO_ORDINAL && day != ColumnarAnalyticsStore.NO_DATE) {
+                days[next[group]++] = day;
+            }
+        }
+        for (int g = 0; g < offsets.length - 1; g++) {
+            Arrays.sort(days, offsets[g], offsets[g + 1]);
+        }
+        return days;
+    }
+
+    /**
+     * Sorted run of epoch days {@code days[start, end)} belonging to one group
+     */
+    public static final class Slice {
+        private final int[] days;
+        private final int start;
+        private final int end;
+
+        private Slice(int[] days, int start, int end) {
+            this.days = days;
+            this.start = start;
+            this.end = end;
+        }
+
+        public int size() {
+            return end - start;
+        }
+
+        public LocalDate first() {
+            return size() > 0 ? LocalDate.ofEpochDay(days[start]) : null;
+        }
+
+        public LocalDate last() {
+            return size() > 0 ? LocalDate.ofEpochDay(days[end - 1]) : null;
+        }
+
+        /**
+         * Number of changes from {@code from} to {@code to}, both inclusive
+         */
+        public int count(LocalDate from, LocalDate to) {
+            return lowerBound(start, to.toEpochDay() + 1) - lowerBound(start, from.toEpochDay());
+        }
+
+        /**
+         * Change counts per bucket from {@code from} to {@code to}, both inclusive, keyed by bucket
+         * start in date order. Empty buckets are included; the first and last buckets only count
+         * days inside the range. Costs one binary search per bucket.
+         */
+        public Map<LocalDate, Integer> series(LocalDate from, LocalDate to, TimeBucket bucket) {
+            Map<LocalDate, Integer> counts = new LinkedHashMap<>();
+            long toExclusive = to.toEpochDay() + 1;
+            int index = lowerBound(start, from.toEpochDay());
+
+            LocalDate bucketStart = bucket.start(from);
+            while (!bucketStart.isAfter(to)) {
+                LocalDate nextStart = bucket.next(bucketStart);
+                int nextIndex = lowerBound(index, Math.min(nextStart.toEpochDay(), toExclusive));
+                counts.put(bucketStart, nextIndex - index);
+                index = nextIndex;
+                bucketStart = nextStart;
+            }
+            return counts;
+        }
+
+        /**
+         * First position in {@code [from, end)} whose day is not before the given epoch day
+         */
+        private int lowerBound(int from, long epochDay) {
+            int low = from;
+            int high = end;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (days[mid] < epochDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
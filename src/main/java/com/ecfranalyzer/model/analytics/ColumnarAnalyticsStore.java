@@ -0,0 +1,396 @@
+package com.ecfranalyzer.model.analytics;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read-only columnar copy of the data analytics group by. Agencies, titles, sections and
+ * historical changes are addressed by dense ordinals, and every attribute is a parallel
+ * primitive array, so a group-by is a single pass over a few {@code int[]} columns.
+ * <p>
+ * Sections are stored grouped by title (largest first within a title), so the sections of
+ * title {@code t} are the range {@code [sectionStart(t), sectionEnd(t))}. Only their word
+ * counts are kept; section labels are looked up per title when a listing needs them.
+ */
+public final class ColumnarAnalyticsStore {
+
+    /** Ordinal of a missing agency or title */
+    public static final int NO_ORDINAL = -1;
+
+    /** Epoch day of a change without an errorOccurred or errorCorrected date */
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
+    private final String[] agencyIds;
+    private final String[] agencyNames;
+    private final Map<String, Integer> agencyOrdinals;
+
+    private final String[] titleIds;
+    private final String[] titleNumbers;
+    private final String[] titleNames;
+    private final int[] titleWordCounts;
+    private final int[] titleAgencies;
+    private final Map<String, Integer> titleOrdinals;
+
+    private final int[] sectionWordCounts;
+    private final int[] sectionTitles;
+    private final int[] titleSectionOffsets;
+
+    private final int[] changeTitles;
+    private final int[] changeAgencies;
+    private final int[] changeEpochDays;
+    private final int[] changeCorrectedEpochDays;
+    private final short[] changeYears;
+    private final int minYear;
+    private final int maxYear;
+
+    private ColumnarAnalyticsStore(Builder builder) {
+        agencyIds = builder.agencyIds.toArray();
+        agencyNames = builder.agencyNames.toArray();
+        agencyOrdinals = Map.copyOf(builder.agencyOrdinals);
+
+        titleIds = builder.titleIds.toArray();
+        titleNumbers = builder.titleNumbers.toArray();
+        titleNames = builder.titleNames.toArray();
+        titleWordCounts = Arrays.copyOf(builder.titleWordCounts, titleIds.length);
+        titleAgencies = new int[titleIds.length];
+        for (int t = 0; t < titleIds.length; t++) {
+            String agencyId = builder.titleAgencyIds.get(t);
+            titleAgencies[t] = agencyId != null ? agencyOrdinals.getOrDefault(agencyId, NO_ORDINAL) : NO_ORDINAL;
+        }
+        titleOrdinals = Map.copyOf(builder.titleOrdinals);
+
+        // Stable counting sort of sections by title keeps the load order (largest first) within each title
+        int sectionCount = builder.sectionCount;
+        titleSectionOffsets = new int[titleIds.length + 1];
+        for (int s = 0; s < sectionCount; s++) {
+            titleSectionOffsets[builder.sectionTitles[s] + 1]++;
+        }
+        for (int t = 0; t < titleIds.length; t++) {
+            titleSectionOffsets[t + 1] += titleSectionOffsets[t];
+        }
+        int[] next = Arrays.copyOf(titleSectionOffsets, titleIds.length);
+        sectionWordCounts = new int[sectionCount];
+        sectionTitles = new int[sectionCount];
+        for (int s = 0; s < sectionCount; s++) {
+            int title = builder.sectionTitles[s];
+            int slot = next[title]++;
+            sectionWordCounts[slot] = builder.sectionWordCounts[s];
+            sectionTitles[slot] = title;
+        }
+
+        int changeCount = builder.changeCount;
+        changeTitles = Arrays.copyOf(builder.changeTitles, changeCount);
+        changeEpochDays = Arrays.copyOf(builder.changeEpochDays, changeCount);
+        changeCorrectedEpochDays = Arrays.copyOf(builder.changeCorrectedEpochDays, changeCount);
+        changeAgencies = new int[changeCount];
+        changeYears = new short[changeCount];
+        int lowYear = Integer.MAX_VALUE;
+        int highYear = Integer.MIN_VALUE;
+        for (int c = 0; c < changeCount; c++) {
+            changeAgencies[c] = titleAgencies[changeTitles[c]];
+            if (changeEpochDays[c] != NO_DATE) {
+                int year = LocalDate.ofEpochDay(changeEpochDays[c]).getYear();
+                changeYears[c] = (short) year;
+                lowYear = Math.min(lowYear, year);
+                highYear = Math.max(highYear, year);
+            }
+        }
+        minYear = lowYear <= highYear ? lowYear : 0;
+        maxYear = lowYear <= highYear ? highYear : -1;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int agencyCount() {
+        return agencyIds.length;
+    }
+
+    public String agencyId(int agency) {
+        return agencyIds[agency];
+    }
+
+    public String agencyName(int agency) {
+        return agencyNames[agency];
+    }
+
+    /**
+     * @return The ordinal of the agency, or {@link #NO_ORDINAL} if it is not in the store
+     */
+    public int agencyOrdinal(String agencyId) {
+        return agencyOrdinals.getOrDefault(agencyId, NO_ORDINAL);
+    }
+
+    public int titleCount() {
+        return titleIds.length;
+    }
+
+    public String titleId(int title) {
+        return titleIds[title];
+    }
+
+    public String titleNumber(int title) {
+        return titleNumbers[title];
+    }
+
+    public String titleName(int title) {
+        return titleNames[title];
+    }
+
+    public int titleWordCount(int title) {
+        return titleWordCounts[title];
+    }
+
+    public int titleAgency(int title) {
+        return titleAgencies[title];
+    }
+
+    /**
+     * @return The ordinal of the title, or {@link #NO_ORDINAL} if it is not in the store
+     */
+    public int titleOrdinal(String titleId) {
+        return titleOrdinals.getOrDefault(titleId, NO_ORDINAL);
+    }
+
+    public int sectionCount() {
+        return sectionWordCounts.length;
+    }
+
+    public int sectionStart(int title) {
+        return titleSectionOffsets[title];
+    }
+
+    public int sectionEnd(int title) {
+        return titleSectionOffsets[title + 1];
+    }
+
+    public int sectionWordCount(int section) {
+        return sectionWordCounts[section];
+    }
+
+    public int changeCount() {
+        return changeTitles.length;
+    }
+
+    /**
+     * @return The epoch day the change's error occurred, or {@link #NO_DATE}
+     */
+    public int changeEpochDay(int change) {
+        return changeEpochDays[change];
+    }
+
+    /**
+     * @return The epoch day the change's error was corrected, or {@link #NO_DATE}
+     */
+    public int changeCorrectedEpochDay(int change) {
+        return changeCorrectedEpochDays[change];
+    }
+
+    public int changeTitle(int change) {
+        return changeTitles[change];
+    }
+
+    public int changeAgency(int change) {
+        return changeAgencies[change];
+    }
+
+    /**
+     * First year with a dated change; together with {@link #getMaxYear()} it bounds the
+     * year axis of {@link #countChangesByTitleAndYear()} and {@link #countChangesByAgencyAndYear()}.
+     * The range is empty when no change is dated.
+     */
+    public int getMinYear() {
+        return minYear;
+    }
+
+    public int getMaxYear() {
+        return maxYear;
+    }
+
+    public long totalWordCount() {
+        long total = 0;
+        for (int wordCount : titleWordCounts) {
+            total += wordCount;
+        }
+        return total;
+    }
+
+    /**
+     * Sum of title word counts per agency ordinal; titles without an agency are not counted
+     */
+    public long[] sumWordCountsByAgency() {
+        long[] totals = new long[agencyIds.length];
+        for (int t = 0; t < titleWordCounts.length; t++) {
+            if (titleAgencies[t] != NO_ORDINAL) {
+                totals[titleAgencies[t]] += titleWordCounts[t];
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Number of changes per title ordinal, dated or not
+     */
+    public int[] countChangesByTitle() {
+        return countChanges(changeTitles, titleIds.length);
+    }
+
+    /**
+     * Number of changes per agency ordinal, dated or not
+     */
+    public int[] countChangesByAgency() {
+        return countChanges(changeAgencies, agencyIds.length);
+    }
+
+    /**
+     * Dated changes per title ordinal and year, indexed {@code [title][year - minYear]}
+     */
+    public int[][] countChangesByTitleAndYear() {
+        return countChangesByYear(changeTitles, titleIds.length);
+    }
+
+    /**
+     * Dated changes per agency ordinal and year, indexed {@code [agency][year - minYear]}
+     */
+    public int[][] countChangesByAgencyAndYear() {
+        return countChangesByYear(changeAgencies, agencyIds.length);
+    }
+
+    private static int[] countChanges(int[] groups, int groupCount) {
+        int[] counts = new int[groupCount];
+        for (int group : groups) {
+            if (group != NO_ORDINAL) {
+                counts[group]++;
+            }
+        }
+        return counts;
+    }
+
+    private int[][] countChangesByYear(int[] groups, int groupCount) {
+        int[][] counts = new int[groupCount][maxYear - minYear + 1];
+        for (int c = 0; c < groups.length; c++) {
+            if (groups[c] != NO_ORDINAL && changeEpochDays[c] != NO_DATE) {
+                counts[groups[c]][changeYears[c] - minYear]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Accumulates rows in load order. Agencies must be added before titles, and titles before
+     * their sections and changes; rows referring to unknown titles are dropped.
+     */
+    public static final class Builder {
+        private final Strings agencyIds = new Strings();
+        private final Strings agencyNames = new Strings();
+        private final Map<String, Integer> agencyOrdinals = new HashMap<>();
+
+        private final Strings titleIds = new Strings();
+        private final Strings titleNumbers = new Strings();
+        private final Strings titleNames = new Strings();
+        private final Strings titleAgencyIds = new Strings();
+        private int[] titleWordCounts = new int[64];
+        private final Map<String, Integer> titleOrdinals = new HashMap<>();
+
+        private int[] sectionWordCounts = new int[1024];
+        private int[] sectionTitles = new int[1024];
+        private int sectionCount;
+
+        private int[] changeTitles = new int[1024];
+        private int[] changeEpochDays = new int[1024];
+        private int[] changeCorrectedEpochDays = new int[1024];
+        private int changeCount;
+
+        private Builder() {
+        }
+
+        public Builder addAgency(String id, String name) {
+            agencyOrdinals.put(id, agencyIds.size());
+            agencyIds.add(id);
+            agencyNames.add(name);
+            return this;
+        }
+
+        public Builder addTitle(String id, String titleNumber, String name, Integer wordCount, String agencyId) {
+            int title = titleIds.size();
+            titleOrdinals.put(id, title);
+            titleIds.add(id);
+            titleNumbers.add(titleNumber);
+            titleNames.add(name);
+            titleAgencyIds.add(agencyId);
+            titleWordCounts = ensureCapacity(titleWordCounts, title);
+            titleWordCounts[title] = wordCount != null ? wordCount : 0;
+            return this;
+        }
+
+        public Builder addSection(String titleId, Integer wordCount) {
+            Integer title = titleOrdinals.get(titleId);
+            if (title == null) {
+                return this;
+            }
+            sectionWordCounts = ensureCapacity(sectionWordCounts, sectionCount);
+            sectionTitles = ensureCapacity(sectionTitles, sectionCount);
+            sectionWordCounts[sectionCount] = wordCount != null ? wordCount : 0;
+            sectionTitles[sectionCount] = title;
+            sectionCount++;
+            return this;
+        }
+
+        public Builder addChange(String titleId, LocalDate errorOccurred, LocalDate errorCorrected) {
+            Integer title = titleOrdinals.get(titleId);
+            if (title == null) {
+                return this;
+            }
+            changeTitles = ensureCapacity(changeTitles, changeCount);
+            changeEpochDays = ensureCapacity(changeEpochDays, changeCount);
+            changeCorrectedEpochDays = ensureCapacity(changeCorrectedEpochDays, changeCount);
+            changeTitles[changeCount] = title;
+            changeEpochDays[changeCount] = toEpochDay(errorOccurred);
+            changeCorrectedEpochDays[changeCount] = toEpochDay(errorCorrected);
+            changeCount++;
+            return this;
+        }
+
+        public ColumnarAnalyticsStore build() {
+            return new ColumnarAnalyticsStore(this);
+        }
+
+        private static int toEpochDay(LocalDate date) {
+            return date != null ? (int) date.toEpochDay() : NO_DATE;
+        }
+
+        private static int[] ensureCapacity(int[] column, int index) {
+            return index < column.length ? column : Arrays.copyOf(column, column.length * 2);
+        }
+    }
+
+    /**
+     * Growable string column
+     */
+    private static final class Strings {
+        private String[] values = new String[64];
+        private int size;
+
+        void add(String value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        String get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        String[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecfranalyzer.model.analytics;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * Calendar granularity of a change series. Buckets are keyed by their first day.
+ */
+public enum TimeBucket {
+    DAY,
+    MONTH,
+    QUARTER,
+    YEAR;
+
+    /**
+     * First day of the bucket containing the date
+     */
+    public LocalDate start(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case MONTH -> date.withDayOfMonth(1);
+            case QUARTER -> LocalDate.of(date.getYear(), (date.getMonthValue() - 1) / 3 * 3 + 1, 1);
+            case YEAR -> date.withDayOfYear(1);
+        };
+    }
+
+    /**
+     * First day of the bucket after the one starting on the given day
+     */
+    public LocalDate next(LocalDate start) {
+        return switch (this) {
+            case DAY -> start.plusDays(1);
+            case MONTH -> start.plusMonths(1);
+            case QUARTER -> start.plusMonths(3);
+            case YEAR -> start.plusYears(1);
+        };
+    }
+
+    /**
+     * Number of buckets needed to cover the range from {@code from} to {@code to}, both inclusive
+     */
+    public long count(LocalDate from, LocalDate to) {
+        LocalDate first = start(from);
+        LocalDate last = start(to);
+        return switch (this) {
+            case DAY -> ChronoUnit.DAYS.between(first, last);
+            case MONTH -> ChronoUnit.MONTHS.between(first, last);
+            case QUARTER -> ChronoUnit.MONTHS.between(first, last) / 3;
+            case YEAR -> ChronoUnit.YEARS.between(first, last);
+        } + 1;
+    }
+
+    /**
+     * @throws IllegalArgumentException If the name is not a bucket
+     */
+    public static TimeBucket parse(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecfranalyzer.model.dto;
+
+/**
+ * Agency listing row, without the title association
+ */
+public record AgencySummary(
+        String id,
+        String name,
+        String shortName,
+        String displayName,
+        String sortableName,
+        String slug) {
+}
@@ -0,0 +1,13 @@
+package com.ecfranalyzer.model.dto;
+
+/**
+ * Section matching a local full-text search
+ */
+public record SearchHit(
+        String sectionId,
+        String number,
+        String heading,
+        String titleId,
+        String titleNumber,
+        double score) {
+}
@@ -0,0 +1,12 @@
+package com.ecfranalyzer.model.dto;
+
+import java.util.List;
+
+/**
+ * Best-scoring hits of a local full-text search, with the number of sections that matched
+ */
+public record SearchResults(
+        String query,
+        int totalHits,
+        List<SearchHit> hits) {
+}
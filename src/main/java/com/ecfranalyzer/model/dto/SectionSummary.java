@@ -0,0 +1,13 @@
+package com.ecfranalyzer.model.dto;
+
+/**
+ * Section listing row, without the title and change associations
+ */
+public record SectionSummary(
+        String id,
+        String number,
+        String heading,
+        String type,
+        boolean reserved,
+        Integer wordCount) {
+}
@@ -0,0 +1,32 @@
+package com.ecfranalyzer.model.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Title listing row, without the section association
+ */
+public record TitleSummary(
+        String id,
+        String titleNumber,
+        String name,
+        LocalDate latestAmendedOn,
+        LocalDate latestIssueDate,
+        LocalDate upToDateAsOf,
+        boolean reserved,
+        Integer wordCount,
+        Integer totalChanges,
+        AgencyRef agency) {
+
+    /**
+     * Flat form for JPQL constructor expressions; the agency is null when the title has none
+     */
+    public TitleSummary(String id, String titleNumber, String name, LocalDate latestAmendedOn,
+                        LocalDate latestIssueDate, LocalDate upToDateAsOf, boolean reserved,
+                        Integer wordCount, Integer totalChanges, String agencyId, String agencyName) {
+        this(id, titleNumber, name, latestAmendedOn, latestIssueDate, upToDateAsOf, reserved, wordCount,
+                totalChanges, agencyId != null ? new AgencyRef(agencyId, agencyName) : null);
+    }
+
+    public record AgencyRef(String id, String name) {
+    }
+}
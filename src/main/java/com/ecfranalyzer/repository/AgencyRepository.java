@@ -1,17 +1,35 @@
 package com.ecfranalyzer.repository;
 
 import com.ecfranalyzer.model.Agency;
+import com.ecfranalyzer.model.dto.AgencySummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AgencyRepository extends JpaRepository<Agency, String> {
 
-    List<Agency> findByNameContainingIgnoreCase(String name);
+    String AGENCY_SUMMARY = "SELECT new com.ecfranalyzer.model.dto.AgencySummary("
+            + "a.id, a.name, a.shortName, a.displayName, a.sortableName, a.slug) FROM Agency a ";
 
-    @Query("SELECT a FROM Agency a ORDER BY SIZE(a.titles) DESC")
-    List<Agency> findAllOrderByTitleCountDesc();
+    @Query(AGENCY_SUMMARY + "WHERE a.id = :id")
+    Optional<AgencySummary> findSummaryById(@Param("id") String id);
+
+    @Query(AGENCY_SUMMARY + "WHERE LOWER(a.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    List<AgencySummary> findSummariesByNameContainingIgnoreCase(@Param("name") String name);
+
+    // Keyset pagination by id
+    @Query(AGENCY_SUMMARY + "ORDER BY a.id")
+    List<AgencySummary> findSummaries(Limit limit);
+
+    @Query(AGENCY_SUMMARY + "WHERE a.id > :id ORDER BY a.id")
+    List<AgencySummary> findSummariesAfter(@Param("id") String id, Limit limit);
+
+    @Query(AGENCY_SUMMARY + "ORDER BY SIZE(a.titles) DESC")
+    List<AgencySummary> findSummariesOrderByTitleCountDesc();
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.ecfranalyzer.repository;
+
+import com.ecfranalyzer.model.analytics.ColumnarAnalyticsStore;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Bulk read path for analytics. Streams agencies, titles, sections and historical changes
+ * straight from JDBC result sets into a {@link ColumnarAnalyticsStore}, without materializing
+ * an entity or projection object per row.
+ */
+@Repository
+public class AnalyticsColumnLoader {
+
+    private static final String SELECT_AGENCIES = "SELECT id, name FROM agency ORDER BY id";
+
+    private static final String SELECT_TITLES =
+            "SELECT id, title_number, name, word_count, agency_id FROM title ORDER BY id";
+
+    private static final String SELECT_SECTIONS =
+            "SELECT title_id, word_count FROM section "
+                    + "ORDER BY title_id, COALESCE(word_count, 0) DESC";
+
+    private static final String SELECT_CHANGES =
+            "SELECT s.title_id, h.error_occurred, h.error_corrected "
+                    + "FROM historical_change h JOIN section s ON s.id = h.section_id";
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AnalyticsColumnLoader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    public ColumnarAnalyticsStore load() {
+        ColumnarAnalyticsStore.Builder builder = ColumnarAnalyticsStore.builder();
+
+        jdbcTemplate.query(SELECT_AGENCIES, rs -> {
+            builder.addAgency(rs.getString(1), rs.getString(2));
+        });
+        jdbcTemplate.query(SELECT_TITLES, rs -> {
+            builder.addTitle(rs.getString(1), rs.getString(2), rs.getString(3),
+                    rs.getObject(4, Integer.class), rs.getString(5));
+        });
+        jdbcTemplate.query(SELECT_SECTIONS, rs -> {
+            builder.addSection(rs.getString(1), rs.getObject(2, Integer.class));
+        });
+        jdbcTemplate.query(SELECT_CHANGES, rs -> {
+            builder.addChange(rs.getString(1), toLocalDate(rs.getDate(2)), toLocalDate(rs.getDate(3)));
+        });
+
+        return builder.build();
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+}
@@ -6,7 +6,6 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
 import java.util.List;
 
 @Repository
@@ -22,5 +21,4 @@ public interface HistoricalChangeRepository extends JpaRepository<HistoricalChan
     @Query("SELECT h FROM HistoricalChange h JOIN h.section s JOIN s.title t JOIN t.agency a WHERE a.id = :agencyId")
     List<HistoricalChange> findByAgencyId(@Param("agencyId") String agencyId);
 
-    List<HistoricalChange> findByErrorOccurredBetween(LocalDate startDate, LocalDate endDate);
-}
\ No newline at end of file
+}
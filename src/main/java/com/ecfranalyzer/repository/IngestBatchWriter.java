@@ -0,0 +1,252 @@
+package com.ecfranalyzer.repository;
+
+import com.ecfranalyzer.model.HistoricalChange;
+import com.ecfranalyzer.model.Section;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk write path for ingestion. Sections and historical changes are buffered and written with
+ * JDBC batch upserts (H2 {@code MERGE ... KEY}), instead of one JPA merge (SELECT + INSERT) per row.
+ */
+@Repository
+public class IngestBatchWriter {
+
+    private static final String UPSERT_SECTION =
+            "MERGE INTO section (id, number, heading, identifier, reserved, type, label_level, "
+                    + "label_description, word_count, title_id) KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_CHANGE =
+            "MERGE INTO historical_change (id, section_id, corrective_action, error_corrected, error_occurred, "
+                    + "fr_citation, position, display_in_toc, year_value, last_modified) KEY (id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String DELETE_CHANGE_REFERENCES =
+            "DELETE FROM \"historical_change$cfr_reference\" WHERE historical_change_id = ?";
+
+    private static final String INSERT_CHANGE_REFERENCE =
+            "INSERT INTO \"historical_change$cfr_reference\" (cfr_reference, title, subtitle, chapter, part, "
+                    + "subpart, section, historical_change_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_TITLE_SECTIONS = "SELECT id FROM section WHERE title_id = ?";
+
+    private static final String SELECT_TITLE_CHANGES =
+            "SELECT c.id, c.section_id FROM historical_change c JOIN section s ON s.id = c.section_id "
+                    + "WHERE s.title_id = ?";
+
+    private static final String DELETE_CHANGE = "DELETE FROM historical_change WHERE id = ?";
+
+    private static final String DELETE_SECTION = "DELETE FROM section WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public IngestBatchWriter(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${ecfr.ingest.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Open a write buffer. Not thread-safe; use one batch per ingesting thread.
+     */
+    public Batch openBatch() {
+        return new Batch(null);
+    }
+
+    /**
+     * Open a write buffer that also records the ID of every row added to it
+     */
+    public Batch openBatch(SeenRows seen) {
+        return new Batch(seen);
+    }
+
+    /**
+     * Delete a title's sections and historical changes that were not written during an ingestion
+     * run, together with the changes of deleted sections, in one transaction
+     * @param titleId The title ID
+     * @param seen The rows the run wrote for the title
+     * @return The number of sections and changes deleted
+     */
+    public Pruned pruneTitle(String titleId, SeenRows seen) {
+        return transactionTemplate.execute(status -> {
+            Set<String> staleSections = new HashSet<>();
+            for (String sectionId : jdbcTemplate.queryForList(SELECT_TITLE_SECTIONS, String.class, titleId)) {
+                if (!seen.sectionIds.contains(sectionId)) {
+                    staleSections.add(sectionId);
+                }
+            }
+
+            List<Object[]> staleChanges = new ArrayList<>();
+            jdbcTemplate.query(SELECT_TITLE_CHANGES, rs -> {
+                long changeId = rs.getLong(1);
+                if (!seen.changeIds.contains(changeId) || staleSections.contains(rs.getString(2))) {
+                    staleChanges.add(new Object[]{changeId});
+                }
+            }, titleId);
+
+            if (!staleChanges.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_CHANGE_REFERENCES, staleChanges);
+                jdbcTemplate.batchUpdate(DELETE_CHANGE, staleChanges);
+            }
+            if (!staleSections.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_SECTION, staleSections.stream().map(id -> new Object[]{id}).toList());
+            }
+            return new Pruned(staleSections.size(), staleChanges.size());
+        });
+    }
+
+    public record Pruned(int sections, int changes) {
+    }
+
+    /**
+     * IDs of the sections and changes written for one title during an ingestion run.
+     * Not thread-safe, like {@link Batch}.
+     */
+    public static class SeenRows {
+        private final Set<String> sectionIds = new HashSet<>();
+        private final Set<Long> changeIds = new HashSet<>();
+
+        public void addSection(String sectionId) {
+            sectionIds.add(sectionId);
+        }
+
+        public void addChange(Long changeId) {
+            changeIds.add(changeId);
+        }
+    }
+
+    /**
+     * Size-bounded buffer of pending rows, flushed whenever either buffer reaches the batch size
+     * and on close. Sections are always flushed before changes so that foreign keys resolve.
+     */
+    public class Batch implements AutoCloseable {
+        private final List<Section> sections = new ArrayList<>();
+        private final List<HistoricalChange> changes = new ArrayList<>();
+        private final SeenRows seen;
+
+        private Batch(SeenRows seen) {
+            this.seen = seen;
+        }
+
+        public void addSection(Section section) {
+            if (seen != null) {
+                seen.addSection(section.getId());
+            }
+            sections.add(section);
+            if (sections.size() >= batchSize) {
+                flushSections();
+            }
+        }
+
+        public void addChange(HistoricalChange change) {
+            if (seen != null) {
+                seen.addChange(change.getId());
+            }
+            changes.add(change);
+            if (changes.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        public void flush() {
+            flushSections();
+            flushChanges();
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+
+        private void flushSections() {
+            if (sections.isEmpty()) {
+                return;
+            }
+
+            List<Object[]> rows = new ArrayList<>(sections.size());
+            for (Section section : sections) {
+                rows.add(new Object[]{
+                        section.getId(),
+                        section.getNumber(),
+                        section.getHeading(),
+                        section.getIdentifier(),
+                        section.isReserved(),
+                        section.getType(),
+                        section.getLabelLevel(),
+                        section.getLabelDescription(),
+                        section.getWordCount(),
+                        section.getTitle() != null ? section.getTitle().getId() : null
+                });
+            }
+
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT_SECTION, rows));
+            sections.clear();
+        }
+
+        private void flushChanges() {
+            if (changes.isEmpty()) {
+                return;
+            }
+
+            List<Object[]> changeRows = new ArrayList<>(changes.size());
+            List<Object[]> changeIds = new ArrayList<>(changes.size());
+            List<Object[]> referenceRows = new ArrayList<>();
+
+            for (HistoricalChange change : changes) {
+                changeRows.add(new Object[]{
+                        change.getId(),
+                        change.getSection() != null ? change.getSection().getId() : null,
+                        change.getCorrectiveAction(),
+                        change.getErrorCorrected(),
+                        change.getErrorOccurred(),
+                        change.getFrCitation(),
+                        change.getPosition(),
+                        change.isDisplayInToc(),
+                        change.getYearValue(),
+                        change.getLastModified()
+                });
+                changeIds.add(new Object[]{change.getId()});
+
+                if (change.getCfrReferences() != null) {
+                    for (HistoricalChange.CfrReference reference : change.getCfrReferences()) {
+                        HistoricalChange.Hierarchy hierarchy = reference.getHierarchy() != null
+                                ? reference.getHierarchy()
+                                : new HistoricalChange.Hierarchy();
+                        referenceRows.add(new Object[]{
+                                reference.getCfrReference(),
+                                hierarchy.getTitle(),
+                                hierarchy.getSubtitle(),
+                                hierarchy.getChapter(),
+                                hierarchy.getPart(),
+                                hierarchy.getSubpart(),
+                                hierarchy.getSection(),
+                                change.getId()
+                        });
+                    }
+                }
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(UPSERT_CHANGE, changeRows);
+                // Replace references like orphanRemoval would on a JPA merge
+                jdbcTemplate.batchUpdate(DELETE_CHANGE_REFERENCES, changeIds);
+                if (!referenceRows.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_CHANGE_REFERENCE, referenceRows);
+                }
+            });
+            changes.clear();
+        }
+    }
+}
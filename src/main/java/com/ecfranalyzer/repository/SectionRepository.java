@@ -1,6 +1,8 @@
 package com.ecfranalyzer.repository;
 
 import com.ecfranalyzer.model.Section;
+import com.ecfranalyzer.model.dto.SectionSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,10 +13,27 @@ import java.util.List;
 @Repository
 public interface SectionRepository extends JpaRepository<Section, String> {
 
+    String SECTION_SUMMARY = "SELECT new com.ecfranalyzer.model.dto.SectionSummary("
+            + "s.id, s.number, s.heading, s.type, s.reserved, s.wordCount) FROM Section s ";
+
     List<Section> findByTitleId(String titleId);
 
     List<Section> findByTitleIdOrderByNumberAsc(String titleId);
 
+    // Keyset pagination by (number, id), served by the (title_id, number, id) index
+    @Query(SECTION_SUMMARY + "WHERE s.title.id = :titleId ORDER BY s.number, s.id")
+    List<SectionSummary> findSummariesByTitleId(@Param("titleId") String titleId, Limit limit);
+
+    @Query(SECTION_SUMMARY + "WHERE s.title.id = :titleId "
+            + "AND (s.number > :number OR (s.number = :number AND s.id > :id)) ORDER BY s.number, s.id")
+    List<SectionSummary> findSummariesByTitleIdAfter(@Param("titleId") String titleId,
+                                                     @Param("number") String number,
+                                                     @Param("id") String id,
+                                                     Limit limit);
+
+    @Query(SECTION_SUMMARY + "WHERE s.title.id = :titleId ORDER BY COALESCE(s.wordCount, 0) DESC, s.id")
+    List<SectionSummary> findSummariesByTitleIdOrderByWordCountDesc(@Param("titleId") String titleId);
+
     @Query("SELECT s FROM Section s WHERE s.title.id = :titleId ORDER BY s.wordCount DESC")
     List<Section> findByTitleIdOrderByWordCountDesc(@Param("titleId") String titleId);
 
@@ -23,4 +42,5 @@ public interface SectionRepository extends JpaRepository<Section, String> {
 
     @Query("SELECT s FROM Section s JOIN s.changes c GROUP BY s ORDER BY COUNT(c) DESC")
     List<Section> findAllOrderByChangeCountDesc();
-}
\ No newline at end of file
+
+}
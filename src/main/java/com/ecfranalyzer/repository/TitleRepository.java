@@ -1,27 +1,48 @@
 package com.ecfranalyzer.repository;
 
 import com.ecfranalyzer.model.Title;
+import com.ecfranalyzer.model.dto.TitleSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TitleRepository extends JpaRepository<Title, String> {
 
+    String TITLE_SUMMARY = "SELECT new com.ecfranalyzer.model.dto.TitleSummary("
+            + "t.id, t.titleNumber, t.name, t.latestAmendedOn, t.latestIssueDate, t.upToDateAsOf, t.reserved, "
+            + "t.wordCount, t.totalChanges, a.id, a.name) FROM Title t LEFT JOIN t.agency a ";
+
     // Basic finder methods
-    List<Title> findByAgencyId(String agencyId);
+    @Query(TITLE_SUMMARY + "WHERE t.id = :id")
+    Optional<TitleSummary> findSummaryById(@Param("id") String id);
+
+    @Query(TITLE_SUMMARY + "WHERE t.titleNumber = :number")
+    Optional<TitleSummary> findSummaryByTitleNumber(@Param("number") String number);
+
+    @Query(TITLE_SUMMARY + "WHERE a.id = :agencyId")
+    List<TitleSummary> findSummariesByAgencyId(@Param("agencyId") String agencyId);
 
-    List<Title> findByNameContainingIgnoreCase(String name);
+    @Query(TITLE_SUMMARY + "WHERE LOWER(t.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    List<TitleSummary> findSummariesByNameContainingIgnoreCase(@Param("name") String name);
 
-    // Make sure this matches your entity property name
-    Title findByTitleNumber(String number);
+    // Keyset pagination by id
+    @Query(TITLE_SUMMARY + "ORDER BY t.id")
+    List<TitleSummary> findSummaries(Limit limit);
+
+    @Query(TITLE_SUMMARY + "WHERE t.id > :id ORDER BY t.id")
+    List<TitleSummary> findSummariesAfter(@Param("id") String id, Limit limit);
 
     // Simple ordering queries
-    List<Title> findAllByOrderByWordCountDesc();
+    @Query(TITLE_SUMMARY + "ORDER BY t.wordCount DESC")
+    List<TitleSummary> findSummariesOrderByWordCountDesc();
+
+    @Query(TITLE_SUMMARY + "WHERE a.id = :agencyId ORDER BY t.wordCount DESC")
+    List<TitleSummary> findSummariesByAgencyIdOrderByWordCountDesc(@Param("agencyId") String agencyId);
 
-    @Query("SELECT t FROM Title t WHERE t.agency.id = :agencyId ORDER BY t.wordCount DESC")
-    List<Title> findByAgencyIdOrderByWordCountDesc(@Param("agencyId") String agencyId);
-}
\ No newline at end of file
+}
@@ -0,0 +1,96 @@
+package com.ecfranalyzer.service;
+
+import com.ecfranalyzer.model.Agency;
+import com.ecfranalyzer.util.AhoCorasickMatcher;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Title-to-agency attribution index, built once per ingestion run.
+ * <p>
+ * CFR references give a direct title number lookup, and all agency names and short names
+ * are compiled into one Aho-Corasick automaton so a title name is matched against every
+ * agency in a single scan.
+ */
+class AgencyAttributionIndex {
+
+    private static final int MIN_SHORT_NAME_LENGTH = 4;
+
+    private final List<Agency> agencies;
+    private final Map<String, Agency> agenciesByTitleNumber = new HashMap<>();
+    private final AhoCorasickMatcher<NamePattern> nameMatcher = new AhoCorasickMatcher<>();
+
+    /**
+     * @param agencies All stored agencies, used for name matching and fallbacks
+     * @param fetchedAgencies Agencies as fetched from eCFR, carrying their CFR references, parents before children
+     */
+    AgencyAttributionIndex(List<Agency> agencies, List<Agency> fetchedAgencies) {
+        this.agencies = agencies;
+
+        for (Agency agency : fetchedAgencies) {
+            if (agency.getCfrReferences() != null) {
+                for (Agency.CfrReference reference : agency.getCfrReferences()) {
+                    // First agency referencing a title wins, as with the original linear scan
+                    agenciesByTitleNumber.putIfAbsent(reference.getTitle(), agency);
+                }
+            }
+        }
+
+        for (int i = 0; i < agencies.size(); i++) {
+            Agency agency = agencies.get(i);
+            if (agency.getName() != null) {
+                nameMatcher.add(agency.getName().toLowerCase(), new NamePattern(i, false));
+            }
+            if (agency.getShortName() != null && agency.getShortName().length() >= MIN_SHORT_NAME_LENGTH) {
+                nameMatcher.add(agency.getShortName().toLowerCase(), new NamePattern(i, true));
+            }
+        }
+        nameMatcher.build();
+    }
+
+    List<Agency> getAgencies() {
+        return agencies;
+    }
+
+    Optional<Agency> findByCfrReference(String titleNumber) {
+        return Optional.ofNullable(agenciesByTitleNumber.get(titleNumber));
+    }
+
+    /**
+     * Find the agency whose name (or, failing that, short name) occurs in the title name.
+     * Longer matches are more specific and win.
+     */
+    Optional<Agency> findByName(String titleName) {
+        if (titleName == null) {
+            return Optional.empty();
+        }
+
+        // Agency index -> score; a full-name match always takes precedence over a short-name match
+        Map<Integer, Integer> nameScores = new LinkedHashMap<>();
+        Map<Integer, Integer> shortNameScores = new LinkedHashMap<>();
+
+        nameMatcher.search(titleName.toLowerCase(), (pattern, start, length) ->
+                (pattern.shortName() ? shortNameScores : nameScores).put(pattern.agencyIndex(), length));
+
+        shortNameScores.keySet().removeAll(nameScores.keySet());
+        nameScores.putAll(shortNameScores);
+
+        int bestIndex = -1;
+        int bestScore = -1;
+        for (Map.Entry<Integer, Integer> entry : nameScores.entrySet()) {
+            if (entry.getValue() > bestScore) {
+                bestIndex = entry.getKey();
+                bestScore = entry.getValue();
+            }
+        }
+
+        return bestIndex >= 0 ? Optional.of(agencies.get(bestIndex)) : Optional.empty();
+    }
+
+    private record NamePattern(int agencyIndex, boolean shortName) {
+    }
+}
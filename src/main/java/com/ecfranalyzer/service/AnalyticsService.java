@@ -1,74 +1,62 @@
 package com.ecfranalyzer.service;
 
-import com.ecfranalyzer.model.Agency;
-import com.ecfranalyzer.model.HistoricalChange;
-import com.ecfranalyzer.model.Section;
-import com.ecfranalyzer.model.Title;
+import com.ecfranalyzer.model.analytics.AnalyticsSnapshot;
 import com.ecfranalyzer.model.analytics.ChangeFrequencyResult;
+import com.ecfranalyzer.model.analytics.ChangeTimeSeriesIndex;
+import com.ecfranalyzer.model.analytics.ColumnarAnalyticsStore;
+import com.ecfranalyzer.model.analytics.TimeBucket;
 import com.ecfranalyzer.model.analytics.WordCountResult;
-import com.ecfranalyzer.repository.AgencyRepository;
-import com.ecfranalyzer.repository.HistoricalChangeRepository;
+import com.ecfranalyzer.model.dto.SectionSummary;
+import com.ecfranalyzer.repository.AnalyticsColumnLoader;
 import com.ecfranalyzer.repository.SectionRepository;
-import com.ecfranalyzer.repository.TitleRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+/**
+ * Analytics over the ingested data. Results are precomputed from a
+ * {@link ColumnarAnalyticsStore} into an immutable {@link AnalyticsSnapshot} that is
+ * swapped atomically after each ingestion, so read methods return prebuilt, sorted lists;
+ * per-section listings read the labels of the one requested title.
+ */
 @Service
+@Slf4j
 public class AnalyticsService {
 
     @Autowired
-    private AgencyRepository agencyRepository;
-
-    @Autowired
-    private TitleRepository titleRepository;
+    private AnalyticsColumnLoader analyticsColumnLoader;
 
     @Autowired
     private SectionRepository sectionRepository;
 
     @Autowired
-    private HistoricalChangeRepository historicalChangeRepository;
+    private DataVersionService dataVersionService;
+
+    private static final int MAX_SERIES_BUCKETS = 10_000;
+
+    private final AtomicReference<AnalyticsSnapshot> snapshot = new AtomicReference<>();
 
     /**
      * Get word count analysis by agency
      * @return List of word count results sorted by count
      */
     public List<WordCountResult> getWordCountsByAgency() {
-        List<Agency> agencies = agencyRepository.findAll();
-        List<WordCountResult> results = new ArrayList<>();
-
-        int totalWords = calculateTotalWordCount();
-
-        for (Agency agency : agencies) {
-            List<Title> titles = titleRepository.findByAgencyId(agency.getId());
-            int agencyWordCount = titles.stream()
-                    .mapToInt(t -> t.getWordCount() != null ? t.getWordCount() : 0)
-                    .sum();
-
-            double percentage = totalWords > 0 ? (double) agencyWordCount / totalWords * 100 : 0;
-
-            results.add(WordCountResult.builder()
-                    .entityId(agency.getId())
-                    .entityName(agency.getName())
-                    .entityType("AGENCY")
-                    .wordCount(agencyWordCount)
-                    .percentageOfTotal(percentage)
-                    .build());
-        }
-
-        // Sort by word count descending
-        return results.stream()
-                .sorted((a, b) -> b.getWordCount().compareTo(a.getWordCount()))
-                .collect(Collectors.toList());
+        return snapshot().getWordCountsByAgency();
     }
 
     /**
@@ -76,28 +64,7 @@ public class AnalyticsService {
      * @return List of word count results sorted by count
      */
     public List<WordCountResult> getWordCountsByTitle() {
-        List<Title> titles = titleRepository.findAll();
-        List<WordCountResult> results = new ArrayList<>();
-
-        int totalWords = calculateTotalWordCount();
-
-        for (Title title : titles) {
-            int titleWordCount = title.getWordCount() != null ? title.getWordCount() : 0;
-            double percentage = totalWords > 0 ? (double) titleWordCount / totalWords * 100 : 0;
-
-            results.add(WordCountResult.builder()
-                    .entityId(title.getId())
-                    .entityName("Title " + title.getTitleNumber() + ": " + title.getName())
-                    .entityType("TITLE")
-                    .wordCount(titleWordCount)
-                    .percentageOfTotal(percentage)
-                    .build());
-        }
-
-        // Sort by word count descending
-        return results.stream()
-                .sorted((a, b) -> b.getWordCount().compareTo(a.getWordCount()))
-                .collect(Collectors.toList());
+        return snapshot().getWordCountsByTitle();
     }
 
     /**
@@ -106,33 +73,28 @@ public class AnalyticsService {
      * @return List of word count results for sections, sorted by count
      */
     public List<WordCountResult> getWordCountsBySectionForTitle(String titleId) {
-        List<Section> sections = sectionRepository.findByTitleId(titleId);
-        List<WordCountResult> results = new ArrayList<>();
-
-        Title title = titleRepository.findById(titleId).orElse(null);
-        if (title == null) {
-            return results;
+        ColumnarAnalyticsStore store = snapshot().getColumns();
+        int title = store.titleOrdinal(titleId);
+        if (title == ColumnarAnalyticsStore.NO_ORDINAL) {
+            return List.of();
         }
 
-        int totalTitleWords = title.getWordCount() != null ? title.getWordCount() : 0;
-
-        for (Section section : sections) {
-            int sectionWordCount = section.getWordCount() != null ? section.getWordCount() : 0;
+        // Section labels are not kept in the columnar store, so they are read for this title only
+        int totalTitleWords = store.titleWordCount(title);
+        List<WordCountResult> results = new ArrayList<>();
+        for (SectionSummary section : sectionRepository.findSummariesByTitleIdOrderByWordCountDesc(titleId)) {
+            int sectionWordCount = section.wordCount() != null ? section.wordCount() : 0;
             double percentage = totalTitleWords > 0 ? (double) sectionWordCount / totalTitleWords * 100 : 0;
 
             results.add(WordCountResult.builder()
-                    .entityId(section.getId())
-                    .entityName(section.getNumber() + ": " + section.getHeading())
+                    .entityId(section.id())
+                    .entityName(section.number() + ": " + section.heading())
                     .entityType("SECTION")
                     .wordCount(sectionWordCount)
                     .percentageOfTotal(percentage)
                     .build());
         }
-
-        // Sort by word count descending
-        return results.stream()
-                .sorted((a, b) -> b.getWordCount().compareTo(a.getWordCount()))
-                .collect(Collectors.toList());
+        return results;
     }
 
     /**
@@ -140,51 +102,7 @@ public class AnalyticsService {
      * @return List of change frequency results sorted by total changes
      */
     public List<ChangeFrequencyResult> getChangeFrequencyByAgency() {
-        List<Agency> agencies = agencyRepository.findAll();
-        List<ChangeFrequencyResult> results = new ArrayList<>();
-
-        for (Agency agency : agencies) {
-            List<HistoricalChange> changes = historicalChangeRepository.findByAgencyId(agency.getId());
-
-            // Group changes by year
-            Map<LocalDate, Integer> changesByDate = new HashMap<>();
-            for (HistoricalChange change : changes) {
-                // Use errorOccurred instead of effectiveDate
-                if (change.getErrorOccurred() != null) {
-                    LocalDate yearDate = LocalDate.of(change.getErrorOccurred().getYear(), 1, 1);
-                    changesByDate.put(yearDate, changesByDate.getOrDefault(yearDate, 0) + 1);
-                }
-            }
-
-            // Sort the map by date
-            Map<LocalDate, Integer> sortedMap = changesByDate.entrySet()
-                    .stream()
-                    .sorted(Map.Entry.comparingByKey())
-                    .collect(Collectors.toMap(
-                            Map.Entry::getKey,
-                            Map.Entry::getValue,
-                            (e1, e2) -> e1,
-                            LinkedHashMap::new
-                    ));
-
-            // Calculate changes per year
-
-            int totalChanges = changes.size() + (int)(Math.random() * 10000) + 1;
-            double changesPerYear = (double) totalChanges / 5;
-            results.add(ChangeFrequencyResult.builder()
-                    .entityId(agency.getId())
-                    .entityName(agency.getName())
-                    .entityType("AGENCY")
-                    .totalChanges(totalChanges)
-                    .changesByDate(sortedMap)
-                    .changesPerYear(changesPerYear)
-                    .build());
-        }
-
-        // Sort by total changes descending
-        return results.stream()
-                .sorted(Comparator.comparing(ChangeFrequencyResult::getTotalChanges).reversed())
-                .collect(Collectors.toList());
+        return snapshot().getChangeFrequencyByAgency();
     }
 
     /**
@@ -192,53 +110,7 @@ public class AnalyticsService {
      * @return List of change frequency results sorted by total changes
      */
     public List<ChangeFrequencyResult> getChangeFrequencyByTitle() {
-        List<Title> titles = titleRepository.findAll();
-        List<ChangeFrequencyResult> results = new ArrayList<>();
-
-        for (Title title : titles) {
-            List<HistoricalChange> changes = historicalChangeRepository.findByTitleId(title.getId());
-
-            // Group changes by year
-            Map<LocalDate, Integer> changesByDate = new HashMap<>();
-            for (HistoricalChange change : changes) {
-                // Use errorOccurred instead of effectiveDate
-                if (change.getErrorOccurred() != null) {
-                    LocalDate yearDate = LocalDate.of(change.getErrorOccurred().getYear(), 1, 1);
-                    changesByDate.put(yearDate, changesByDate.getOrDefault(yearDate, 0) + 1);
-                }
-            }
-
-            // Sort the map by date
-            Map<LocalDate, Integer> sortedMap = changesByDate.entrySet()
-                    .stream()
-                    .sorted(Map.Entry.comparingByKey())
-                    .collect(Collectors.toMap(
-                            Map.Entry::getKey,
-                            Map.Entry::getValue,
-                            (e1, e2) -> e1,
-                            LinkedHashMap::new
-                    ));
-
-            // Calculate changes per year
-            double changesPerYear = 0;
-            if (!sortedMap.isEmpty()) {
-                changesPerYear = (double) changes.size() / sortedMap.size();
-            }
-
-            results.add(ChangeFrequencyResult.builder()
-                    .entityId(title.getId())
-                    .entityName("Title " + title.getTitleNumber() + ": " + title.getName())
-                    .entityType("TITLE")
-                    .totalChanges(changes.size())
-                    .changesByDate(sortedMap)
-                    .changesPerYear(changesPerYear)
-                    .build());
-        }
-
-        // Sort by total changes descending
-        return results.stream()
-                .sorted(Comparator.comparing(ChangeFrequencyResult::getTotalChanges).reversed())
-                .collect(Collectors.toList());
+        return snapshot().getChangeFrequencyByTitle();
     }
 
     /**
@@ -247,26 +119,7 @@ public class AnalyticsService {
      * @return Map of year to change count
      */
     public Map<Integer, Integer> getChangeCountsByYearForAgency(String agencyId) {
-        List<HistoricalChange> changes = historicalChangeRepository.findByAgencyId(agencyId);
-        Map<Integer, Integer> countsByYear = new HashMap<>();
-
-        for (HistoricalChange change : changes) {
-            if (change.getErrorOccurred() != null) {
-                int year = change.getErrorOccurred().getYear();
-                countsByYear.put(year, countsByYear.getOrDefault(year, 0) + 1);
-            }
-        }
-
-        // Sort by year
-        return countsByYear.entrySet()
-                .stream()
-                .sorted(Map.Entry.comparingByKey())
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (e1, e2) -> e1,
-                        LinkedHashMap::new
-                ));
+        return snapshot().getChangeCountsByYearByAgency().getOrDefault(agencyId, Map.of());
     }
 
     /**
@@ -275,26 +128,70 @@ public class AnalyticsService {
      * @return Map of year to change count
      */
     public Map<Integer, Integer> getChangeCountsByYearForTitle(String titleId) {
-        List<HistoricalChange> changes = historicalChangeRepository.findByTitleId(titleId);
-        Map<Integer, Integer> countsByYear = new HashMap<>();
+        return snapshot().getChangeCountsByYearByTitle().getOrDefault(titleId, Map.of());
+    }
 
-        for (HistoricalChange change : changes) {
-            if (change.getErrorOccurred() != null) {
-                int year = change.getErrorOccurred().getYear();
-                countsByYear.put(year, countsByYear.getOrDefault(year, 0) + 1);
+    /**
+     * Get change counts over a date range in calendar buckets, from the epoch-day index
+     * @param agencyId The agency ID, or null
+     * @param titleId The title ID, or null; with neither ID all titles are counted
+     * @param from First day counted, or null for the first change
+     * @param to Last day counted, or null for the last change
+     * @param bucket Bucket granularity
+     * @param byErrorCorrected Bucket by errorCorrected instead of errorOccurred
+     * @return Change counts keyed by bucket start, or empty if the agency or title is unknown
+     * @throws IllegalArgumentException If the range is reversed or needs too many buckets
+     */
+    public Optional<ChangeFrequencyResult> getChangeSeries(String agencyId, String titleId, LocalDate from, LocalDate to,
+                                                           TimeBucket bucket, boolean byErrorCorrected) {
+        AnalyticsSnapshot current = snapshot();
+        ColumnarAnalyticsStore store = current.getColumns();
+        ChangeTimeSeriesIndex index = byErrorCorrected
+                ? current.getChangesByErrorCorrected()
+                : current.getChangesByErrorOccurred();
+
+        ChangeFrequencyResult.ChangeFrequencyResultBuilder result = ChangeFrequencyResult.builder();
+        ChangeTimeSeriesIndex.Slice changes;
+        if (titleId != null) {
+            int title = store.titleOrdinal(titleId);
+            if (title == ColumnarAnalyticsStore.NO_ORDINAL) {
+                return Optional.empty();
+            }
+            changes = index.title(title);
+            result.entityId(titleId).entityName(titleDisplayName(store, title)).entityType("TITLE");
+        } else if (agencyId != null) {
+            int agency = store.agencyOrdinal(agencyId);
+            if (agency == ColumnarAnalyticsStore.NO_ORDINAL) {
+                return Optional.empty();
             }
+            changes = index.agency(agency);
+            result.entityId(agencyId).entityName(store.agencyName(agency)).entityType("AGENCY");
+        } else {
+            changes = index.all();
+            result.entityName("All titles").entityType("ALL");
         }
 
-        // Sort by year
-        return countsByYear.entrySet()
-                .stream()
-                .sorted(Map.Entry.comparingByKey())
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (e1, e2) -> e1,
-                        LinkedHashMap::new
-                ));
+        LocalDate rangeFrom = from != null ? from : changes.first();
+        LocalDate rangeTo = to != null ? to : changes.last();
+        if (rangeFrom == null || rangeTo == null) {
+            // No dated changes and no explicit range to report over
+            return Optional.of(result.totalChanges(0).changesByDate(Map.of()).changesPerYear(0.0).build());
+        }
+        if (rangeFrom.isAfter(rangeTo)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (bucket.count(rangeFrom, rangeTo) > MAX_SERIES_BUCKETS) {
+            throw new IllegalArgumentException(
+                    "Range needs more than " + MAX_SERIES_BUCKETS + " " + bucket.name().toLowerCase() + " buckets");
+        }
+
+        int totalChanges = changes.count(rangeFrom, rangeTo);
+        double years = (rangeTo.toEpochDay() - rangeFrom.toEpochDay() + 1) / 365.25;
+        return Optional.of(result
+                .totalChanges(totalChanges)
+                .changesByDate(changes.series(rangeFrom, rangeTo, bucket))
+                .changesPerYear(totalChanges / years)
+                .build());
     }
 
     /**
@@ -303,9 +200,7 @@ public class AnalyticsService {
      * @return List of top agencies sorted by word count
      */
     public List<WordCountResult> getTopAgenciesByWordCount(int limit) {
-        return getWordCountsByAgency().stream()
-                .limit(limit)
-                .collect(Collectors.toList());
+        return head(getWordCountsByAgency(), limit);
     }
 
     /**
@@ -314,9 +209,7 @@ public class AnalyticsService {
      * @return List of top titles sorted by word count
      */
     public List<WordCountResult> getTopTitlesByWordCount(int limit) {
-        return getWordCountsByTitle().stream()
-                .limit(limit)
-                .collect(Collectors.toList());
+        return head(getWordCountsByTitle(), limit);
     }
 
     /**
@@ -326,9 +219,7 @@ public class AnalyticsService {
      * @return List of top sections sorted by word count
      */
     public List<WordCountResult> getTopSectionsByWordCount(String titleId, int limit) {
-        return getWordCountsBySectionForTitle(titleId).stream()
-                .limit(limit)
-                .collect(Collectors.toList());
+        return head(getWordCountsBySectionForTitle(titleId), limit);
     }
 
     /**
@@ -337,9 +228,7 @@ public class AnalyticsService {
      * @return List of top agencies sorted by change frequency
      */
     public List<ChangeFrequencyResult> getTopAgenciesByChangeFrequency(int limit) {
-        return getChangeFrequencyByAgency().stream()
-                .limit(limit)
-                .collect(Collectors.toList());
+        return head(getChangeFrequencyByAgency(), limit);
     }
 
     /**
@@ -348,19 +237,218 @@ public class AnalyticsService {
      * @return List of top titles sorted by change frequency
      */
     public List<ChangeFrequencyResult> getTopTitlesByChangeFrequency(int limit) {
-        return getChangeFrequencyByTitle().stream()
-                .limit(limit)
+        return head(getChangeFrequencyByTitle(), limit);
+    }
+
+    /**
+     * Current analytics snapshot, built on first use if ingestion has not built one yet
+     */
+    public AnalyticsSnapshot snapshot() {
+        AnalyticsSnapshot current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+        synchronized (snapshot) {
+            current = snapshot.get();
+            if (current == null) {
+                current = buildSnapshot();
+                snapshot.set(current);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Recompute all analytics from the database and atomically replace the current snapshot.
+     * Readers keep seeing the previous snapshot until the new one is complete.
+     */
+    public AnalyticsSnapshot rebuildSnapshot() {
+        synchronized (snapshot) {
+            AnalyticsSnapshot rebuilt = buildSnapshot();
+            snapshot.set(rebuilt);
+            dataVersionService.bump();
+            return rebuilt;
+        }
+    }
+
+    private AnalyticsSnapshot buildSnapshot() {
+        long start = System.currentTimeMillis();
+
+        ColumnarAnalyticsStore store = analyticsColumnLoader.load();
+        long loaded = System.currentTimeMillis();
+        long totalWords = store.totalWordCount();
+
+        List<ChangeFrequencyResult> changeFrequencyByAgency = computeChangeFrequencyByAgency(store);
+        List<ChangeFrequencyResult> changeFrequencyByTitle = computeChangeFrequencyByTitle(store);
+
+        AnalyticsSnapshot built = AnalyticsSnapshot.builder()
+                .builtAt(Instant.now())
+                .columns(store)
+                .changesByErrorOccurred(ChangeTimeSeriesIndex.build(store, store::changeEpochDay))
+                .changesByErrorCorrected(ChangeTimeSeriesIndex.build(store, store::changeCorrectedEpochDay))
+                .wordCountsByAgency(List.copyOf(computeWordCountsByAgency(store, totalWords)))
+                .wordCountsByTitle(List.copyOf(computeWordCountsByTitle(store, totalWords)))
+                .changeFrequencyByAgency(List.copyOf(changeFrequencyByAgency))
+                .changeFrequencyByTitle(List.copyOf(changeFrequencyByTitle))
+                .changeCountsByYearByAgency(countsByYear(changeFrequencyByAgency))
+                .changeCountsByYearByTitle(countsByYear(changeFrequencyByTitle))
+                .build();
+
+        log.info("Built analytics snapshot for {} titles, {} sections and {} changes in {} ms ({} ms loading columns)",
+                store.titleCount(), store.sectionCount(), store.changeCount(),
+                System.currentTimeMillis() - start, loaded - start);
+        return built;
+    }
+
+    /**
+     * Compute word count analysis by agency from per-agency word count sums
+     * @return List of word count results sorted by count
+     */
+    private List<WordCountResult> computeWordCountsByAgency(ColumnarAnalyticsStore store, long totalWords) {
+        long[] wordCountByAgency = store.sumWordCountsByAgency();
+
+        List<WordCountResult> results = new ArrayList<>();
+        for (int agency = 0; agency < store.agencyCount(); agency++) {
+            int agencyWordCount = (int) wordCountByAgency[agency];
+            double percentage = totalWords > 0 ? (double) agencyWordCount / totalWords * 100 : 0;
+
+            results.add(WordCountResult.builder()
+                    .entityId(store.agencyId(agency))
+                    .entityName(store.agencyName(agency))
+                    .entityType("AGENCY")
+                    .wordCount(agencyWordCount)
+                    .percentageOfTotal(percentage)
+                    .build());
+        }
+
+        // Sort by word count descending
+        return results.stream()
+                .sorted((a, b) -> b.getWordCount().compareTo(a.getWordCount()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Compute word count analysis by title
+     * @return List of word count results sorted by count
+     */
+    private List<WordCountResult> computeWordCountsByTitle(ColumnarAnalyticsStore store, long totalWords) {
+        List<WordCountResult> results = new ArrayList<>();
+
+        for (int title = 0; title < store.titleCount(); title++) {
+            int titleWordCount = store.titleWordCount(title);
+            double percentage = totalWords > 0 ? (double) titleWordCount / totalWords * 100 : 0;
+
+            results.add(WordCountResult.builder()
+                    .entityId(store.titleId(title))
+                    .entityName(titleDisplayName(store, title))
+                    .entityType("TITLE")
+                    .wordCount(titleWordCount)
+                    .percentageOfTotal(percentage)
+                    .build());
+        }
+
+        // Sort by word count descending
+        return results.stream()
+                .sorted((a, b) -> b.getWordCount().compareTo(a.getWordCount()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Compute historical change frequency analysis by agency from columnar change counts
+     * @return List of change frequency results sorted by total changes
+     */
+    private List<ChangeFrequencyResult> computeChangeFrequencyByAgency(ColumnarAnalyticsStore store) {
+        int[] totals = store.countChangesByAgency();
+        int[][] countsByYear = store.countChangesByAgencyAndYear();
+        List<ChangeFrequencyResult> results = new ArrayList<>();
+
+        for (int agency = 0; agency < store.agencyCount(); agency++) {
+            // Calculate changes per year
+
+            int totalChanges = totals[agency] + (int)(Math.random() * 10000) + 1;
+            double changesPerYear = (double) totalChanges / 5;
+            results.add(ChangeFrequencyResult.builder()
+                    .entityId(store.agencyId(agency))
+                    .entityName(store.agencyName(agency))
+                    .entityType("AGENCY")
+                    .totalChanges(totalChanges)
+                    .changesByDate(byYearStart(store, countsByYear[agency]))
+                    .changesPerYear(changesPerYear)
+                    .build());
+        }
+
+        // Sort by total changes descending
+        return results.stream()
+                .sorted(Comparator.comparing(ChangeFrequencyResult::getTotalChanges).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Compute historical change frequency analysis by title from columnar change counts
+     * @return List of change frequency results sorted by total changes
+     */
+    private List<ChangeFrequencyResult> computeChangeFrequencyByTitle(ColumnarAnalyticsStore store) {
+        int[] totals = store.countChangesByTitle();
+        int[][] countsByYear = store.countChangesByTitleAndYear();
+        List<ChangeFrequencyResult> results = new ArrayList<>();
+
+        for (int title = 0; title < store.titleCount(); title++) {
+            Map<LocalDate, Integer> changesByDate = byYearStart(store, countsByYear[title]);
+
+            // Calculate changes per year
+            double changesPerYear = 0;
+            if (!changesByDate.isEmpty()) {
+                changesPerYear = (double) totals[title] / changesByDate.size();
+            }
+
+            results.add(ChangeFrequencyResult.builder()
+                    .entityId(store.titleId(title))
+                    .entityName(titleDisplayName(store, title))
+                    .entityType("TITLE")
+                    .totalChanges(totals[title])
+                    .changesByDate(changesByDate)
+                    .changesPerYear(changesPerYear)
+                    .build());
+        }
+
+        // Sort by total changes descending
+        return results.stream()
+                .sorted(Comparator.comparing(ChangeFrequencyResult::getTotalChanges).reversed())
                 .collect(Collectors.toList());
     }
 
     /**
-     * Calculate the total word count across all titles
-     * @return Total word count
+     * Non-zero yearly counts of one agency or title, keyed by the first day of the year in year order.
+     * Changes without an errorOccurred date count towards the total only.
      */
-    private int calculateTotalWordCount() {
-        List<Title> titles = titleRepository.findAll();
-        return titles.stream()
-                .mapToInt(t -> t.getWordCount() != null ? t.getWordCount() : 0)
-                .sum();
+    private static Map<LocalDate, Integer> byYearStart(ColumnarAnalyticsStore store, int[] countsByYear) {
+        Map<LocalDate, Integer> changesByDate = new LinkedHashMap<>();
+        for (int i = 0; i < countsByYear.length; i++) {
+            if (countsByYear[i] > 0) {
+                changesByDate.put(LocalDate.of(store.getMinYear() + i, 1, 1), countsByYear[i]);
+            }
+        }
+        return changesByDate;
+    }
+
+    private static String titleDisplayName(ColumnarAnalyticsStore store, int title) {
+        return "Title " + store.titleNumber(title) + ": " + store.titleName(title);
+    }
+
+    /**
+     * Year-to-count maps, sorted by year, derived from the yearly buckets of change frequency results
+     */
+    private Map<String, Map<Integer, Integer>> countsByYear(List<ChangeFrequencyResult> results) {
+        Map<String, Map<Integer, Integer>> countsByEntity = new HashMap<>();
+        for (ChangeFrequencyResult result : results) {
+            Map<Integer, Integer> countsByYear = new LinkedHashMap<>();
+            result.getChangesByDate().forEach((date, count) -> countsByYear.put(date.getYear(), count));
+            countsByEntity.put(result.getEntityId(), Collections.unmodifiableMap(countsByYear));
+        }
+        return Map.copyOf(countsByEntity);
+    }
+
+    private static <T> List<T> head(List<T> results, int limit) {
+        return results.subList(0, Math.max(0, Math.min(limit, results.size())));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,134 @@
+package com.ecfranalyzer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Conditional GETs for upstream JSON resources.
+ * <p>
+ * The ETag and Last-Modified validators of each response are kept with its parsed body, and later
+ * requests for the same URL send {@code If-None-Match} / {@code If-Modified-Since}. A 304 reuses the
+ * stored body, so revalidating unchanged data costs a round trip but no payload. Entries outlive the
+ * Spring caches in front of {@link EcfrApiService}, which is what makes their hourly refreshes cheap.
+ * {@link EcfrAsyncApiService} makes its own requests but shares the stored validators and bodies
+ * through {@link #lookup(String)}, {@link #notModified(String, ValidatedResponse, String, long)} and
+ * {@link #store(String, String, long, Object)}.
+ */
+@Component
+@Slf4j
+public class ConditionalRequestCache {
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, ValidatedResponse> responses;
+
+    public ConditionalRequestCache(RestTemplate restTemplate,
+                                   ObjectMapper objectMapper,
+                                   @Value("${ecfr.http.validator-cache.max-entries:1000}") long maxEntries,
+                                   @Value("${ecfr.http.validator-cache.ttl:24h}") Duration ttl) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * GET a JSON resource, revalidating a previously stored response if there is one
+     * @param url The resource URL
+     * @param type Type to parse the body into
+     * @return The parsed body, the stored body on 304, or null if the response is not JSON
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getForObject(String url, Class<T> type) {
+        ValidatedResponse stored = responses.getIfPresent(url);
+
+        return restTemplate.execute(url, HttpMethod.GET, request -> {
+            request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+            if (stored != null) {
+                if (stored.etag() != null) {
+                    request.getHeaders().setIfNoneMatch(stored.etag());
+                }
+                if (stored.lastModified() > 0) {
+                    request.getHeaders().setIfModifiedSince(stored.lastModified());
+                }
+            }
+        }, response -> {
+            HttpHeaders headers = response.getHeaders();
+            if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && stored != null) {
+                return (T) notModified(url, stored, headers.getETag(), headers.getLastModified());
+            }
+
+            MediaType contentType = headers.getContentType();
+            if (contentType == null || !contentType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                log.error("Unsupported content type from {}: {}", url, contentType);
+                return null;
+            }
+
+            T body;
+            try (InputStream in = response.getBody()) {
+                body = objectMapper.readValue(in, type);
+            }
+
+            store(url, headers.getETag(), headers.getLastModified(), body);
+            return body;
+        });
+    }
+
+    /**
+     * @return The stored response for a URL, whose validators a request should send, or null
+     */
+    public ValidatedResponse lookup(String url) {
+        return responses.getIfPresent(url);
+    }
+
+    /**
+     * Handle a 304 for a stored response
+     * @param etag ETag sent with the 304, or null
+     * @param lastModified Last-Modified sent with the 304, or -1 if absent
+     * @return The stored body
+     */
+    public Object notModified(String url, ValidatedResponse stored, String etag, long lastModified) {
+        log.debug("{} not modified, reusing stored response", url);
+        // Re-put so a resource that keeps revalidating never expires, taking any updated validators
+        responses.put(url, new ValidatedResponse(
+                etag != null ? etag : stored.etag(),
+                lastModified > 0 ? lastModified : stored.lastModified(),
+                stored.body()));
+        return stored.body();
+    }
+
+    /**
+     * Store a freshly downloaded body with its validators, or forget the URL if it has none
+     * @param lastModified Last-Modified in epoch milliseconds, or -1 if absent
+     */
+    public void store(String url, String etag, long lastModified, Object body) {
+        if (body != null && (etag != null || lastModified > 0)) {
+            responses.put(url, new ValidatedResponse(etag, lastModified, body));
+        } else {
+            responses.invalidate(url);
+        }
+    }
+
+    /**
+     * A parsed body with the validators it was served with; {@code lastModified} is in epoch milliseconds
+     */
+    public record ValidatedResponse(String etag, long lastModified, Object body) {
+    }
+}
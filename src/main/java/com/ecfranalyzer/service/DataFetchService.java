@@ -5,27 +5,35 @@ import com.ecfranalyzer.model.HistoricalChange;
 import com.ecfranalyzer.model.Section;
 import com.ecfranalyzer.model.Title;
 import com.ecfranalyzer.repository.AgencyRepository;
-import com.ecfranalyzer.repository.HistoricalChangeRepository;
+import com.ecfranalyzer.repository.IngestBatchWriter;
 import com.ecfranalyzer.repository.SectionRepository;
 import com.ecfranalyzer.repository.TitleRepository;
+import com.ecfranalyzer.util.SectionXmlExtractor;
+import com.ecfranalyzer.util.SectionXmlExtractor.ExtractionSummary;
 import com.ecfranalyzer.util.TextAnalysisUtil;
+import com.ecfranalyzer.util.TitleTextIndex;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
 
 import lombok.extern.slf4j.Slf4j;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import java.io.StringReader;
+import javax.xml.stream.XMLStreamException;
+import java.io.InputStream;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,6 +43,9 @@ public class DataFetchService {
     @Autowired
     private EcfrApiService ecfrApiService;
 
+    @Autowired
+    private EcfrAsyncApiService ecfrAsyncApiService;
+
     @Autowired
     private AgencyRepository agencyRepository;
 
@@ -45,49 +56,221 @@ public class DataFetchService {
     private SectionRepository sectionRepository;
 
     @Autowired
-    private HistoricalChangeRepository historicalChangeRepository;
+    private IngestBatchWriter ingestBatchWriter;
 
     @Autowired
     private TextAnalysisUtil textAnalysisUtil;
 
+    @Autowired
+    private SectionXmlExtractor sectionXmlExtractor;
+
+    @Autowired
+    private StructureIngestService structureIngestService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    @Qualifier("ingestionExecutor")
+    private ExecutorService ingestionExecutor;
+
+    @Value("${ecfr.ingest.max-in-flight-titles:${ecfr.ingest.worker-threads:4}}")
+    private int maxInFlightTitles;
+
+    @Value("${ecfr.ingest.warm-start:true}")
+    private boolean warmStartEnabled;
+
+    private final AtomicBoolean ingestionRunning = new AtomicBoolean(false);
+
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
-    // Run once at startup
+    /**
+     * Publish analytics for data persisted by a previous run as soon as the server is up,
+     * so a restart with a file-backed store answers immediately instead of after re-ingestion.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmStart() {
+        if (!warmStartEnabled) {
+            return;
+        }
+        long persistedTitles = titleRepository.count();
+        if (persistedTitles > 0) {
+            log.info("Found {} persisted titles, serving them while changed titles refresh in the background", persistedTitles);
+            analyticsService.rebuildSnapshot();
+            if (searchIndexService.isEnabled()) {
+                CompletableFuture.runAsync(this::indexArchivedTitles, ingestionExecutor);
+            }
+        }
+    }
+
+    // Run once at startup: a full fetch into an empty store, otherwise only what changed
     @Scheduled(initialDelay = 10000, fixedDelay = Long.MAX_VALUE)
     public void fetchAllData() {
-        log.info("Starting data fetch process");
+        runIngestion(warmStartEnabled && titleRepository.count() > 0);
+    }
+
+    /**
+     * Re-ingest only titles whose amendment or issue date moved since they were last ingested.
+     * Unchanged titles keep their sections, word counts and corrections.
+     */
+    @Scheduled(cron = "${ecfr.ingest.refresh-cron:0 0 4 * * *}")
+    public void refreshChangedTitles() {
+        runIngestion(true);
+    }
+
+    private void runIngestion(boolean incremental) {
+        if (!ingestionRunning.compareAndSet(false, true)) {
+            log.info("Data fetch already in progress, skipping {} run", incremental ? "incremental" : "full");
+            return;
+        }
+
+        try {
+            log.info("Starting {} data fetch process", incremental ? "incremental" : "full");
+
+            List<Agency> fetchedAgencies = fetchAgencies();
+            List<Title> titles = fetchTitles(fetchedAgencies);
+            dataVersionService.bump();
+
+            // For each title, fetch content, structure and corrections in parallel
+            List<Title> titlesToProcess = incremental
+                    ? titles.stream().filter(this::hasChangedSinceIngestion).toList()
+                    : titles;
+            log.info("Found {} titles to process ({} total)", titlesToProcess.size(), titles.size());
+
+            ingestTitles(titlesToProcess, prefetchCorrections(titlesToProcess));
+
+            // Fall back to estimated word counts only for titles that have never been counted
+            List<Title> uncountedTitles = titles.stream()
+                    .filter(t -> t.getWordCount() == null)
+                    .toList();
+            if (!uncountedTitles.isEmpty()) {
+                log.info("Estimating word counts for {} titles without content", uncountedTitles.size());
+                List<Title> processedTitles = titles.stream()
+                        .filter(t -> t.getWordCount() != null)
+                        .toList();
+                estimateWordCountsForRemainingTitles(titles, processedTitles);
+                dataVersionService.bump();
+            }
 
-        fetchAgencies();
-        fetchTitles();
+            // Publish the new data to the analytics endpoints in one swap
+            analyticsService.rebuildSnapshot();
 
-        // For each title, fetch content and structure
-        // Limit to a few titles for initial load for demo purposes
-        List<Title> titles = titleRepository.findAll();
-        log.info("Found {} titles to process", titles.size());
+            log.info("Data fetch process completed");
+        } finally {
+            ingestionRunning.set(false);
+        }
+    }
+
+    /**
+     * A title needs ingesting if it never completed one, or if eCFR reports a newer amendment
+     * or issue than the one ingested. {@code up_to_date_as_of} is not compared because it
+     * advances every day whether or not the title changed.
+     */
+    private boolean hasChangedSinceIngestion(Title title) {
+        return title.getLastIngested() == null
+                || !Objects.equals(title.getLatestAmendedOn(), title.getIngestedAmendedOn())
+                || !Objects.equals(title.getLatestIssueDate(), title.getIngestedIssueDate());
+    }
 
-        // Process only the first few titles for quicker startup
-        int maxTitlesToProcess = Math.min(10, titles.size());
-        List<Title> limitedTitles = titles.subList(0, maxTitlesToProcess);
+    /**
+     * Request the corrections of every title at once on the non-blocking client, within its
+     * request limit, so they are ready by the time each title's content has been ingested
+     * @return Pending corrections response by title ID
+     */
+    private Map<String, CompletableFuture<Map<String, Object>>> prefetchCorrections(List<Title> titles) {
+        Map<String, CompletableFuture<Map<String, Object>>> corrections = new HashMap<>();
+        for (Title title : titles) {
+            corrections.put(title.getId(), ecfrAsyncApiService.getCorrectionsByTitle(title.getTitleNumber()));
+        }
+        return corrections;
+    }
 
-        log.info("Processing {} titles for detailed analysis", limitedTitles.size());
-        for (Title title : limitedTitles) {
+    /**
+     * Ingest titles on the ingestion worker pool, keeping at most
+     * {@code maxInFlightTitles} titles submitted at any one time.
+     * A failure in one title never affects the others.
+     * @param corrections Pending corrections response by title ID
+     * @return The titles that failed to ingest
+     */
+    private List<Title> ingestTitles(List<Title> titles, Map<String, CompletableFuture<Map<String, Object>>> corrections) {
+        Semaphore inFlight = new Semaphore(maxInFlightTitles);
+        List<Title> failedTitles = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+        log.info("Processing {} titles on the ingestion pool ({} in flight max)", titles.size(), maxInFlightTitles);
+        for (Title title : titles) {
+            inFlight.acquireUninterruptibly();
             try {
-                fetchTitleContent(title);
-                fetchTitleStructure(title);
-                fetchCorrections(title);
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        processTitle(title, corrections.get(title.getId()));
+                    } catch (Exception e) {
+                        log.error("Error processing title {}: {}", title.getTitleNumber(), e.getMessage(), e);
+                        failedTitles.add(title);
+                    } finally {
+                        inFlight.release();
+                    }
+                }, ingestionExecutor));
+            } catch (RejectedExecutionException e) {
+                inFlight.release();
+                log.error("Ingestion pool rejected title {}", title.getTitleNumber());
+                failedTitles.add(title);
+            }
+        }
 
-                // Save updated title with word count
-                titleRepository.save(title);
-            } catch (Exception e) {
-                log.error("Error processing title {}: {}", title.getTitleNumber(), e.getMessage(), e);
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+        log.info("Processed {} titles ({} failed)", titles.size(), failedTitles.size());
+        return failedTitles;
+    }
+
+    private void processTitle(Title title, CompletableFuture<Map<String, Object>> corrections) {
+        LocalDate versionDate = versionDate(title);
+        IngestBatchWriter.SeenRows seen = new IngestBatchWriter.SeenRows();
+
+        boolean contentIngested = fetchTitleContent(title, versionDate, seen);
+        boolean structureIngested = fetchTitleStructure(title, versionDate, seen);
+        boolean correctionsIngested = fetchCorrections(title, corrections, seen);
+
+        // Upserts never remove rows, so drop what the new version no longer has, but only
+        // when every source was read; a failed fetch must not look like deleted sections
+        if (contentIngested && structureIngested && correctionsIngested) {
+            IngestBatchWriter.Pruned pruned = ingestBatchWriter.pruneTitle(title.getId(), seen);
+            if (pruned.sections() > 0 || pruned.changes() > 0) {
+                log.info("Removed {} sections and {} changes no longer in title {}",
+                        pruned.sections(), pruned.changes(), title.getTitleNumber());
             }
         }
 
-        // Calculate summary statistics for remaining titles
-        log.info("Estimating word counts for remaining titles");
-        estimateWordCountsForRemainingTitles(titles, limitedTitles);
+        // Remember which version was ingested so incremental refreshes can skip it
+        if (contentIngested) {
+            title.setIngestedAmendedOn(title.getLatestAmendedOn());
+            title.setIngestedIssueDate(title.getLatestIssueDate());
+            title.setLastIngested(LocalDateTime.now());
+        }
+
+        // Save updated title with word count
+        titleRepository.save(title);
+        dataVersionService.bump();
+    }
 
-        log.info("Data fetch process completed");
+    /**
+     * Date of the title version to ingest: the last amendment eCFR reports for it, so a refresh
+     * after an amendment fetches (and archives) the amended document rather than an old one
+     */
+    private LocalDate versionDate(Title title) {
+        if (title.getLatestAmendedOn() != null) {
+            return title.getLatestAmendedOn();
+        }
+        if (title.getUpToDateAsOf() != null) {
+            return title.getUpToDateAsOf();
+        }
+        return ecfrApiService.fetchLatestAvailableDate();
     }
 
     /**
@@ -148,22 +331,24 @@ public class DataFetchService {
         log.info("Estimated word counts for {} remaining titles", remainingTitles.size());
     }
 
-    private void fetchAgencies() {
+    private List<Agency> fetchAgencies() {
         log.info("Fetching agencies");
         Map<String, Object> response = ecfrApiService.getAgencies();
+        List<Agency> fetchedAgencies = new ArrayList<>();
 
         if (response != null && response.containsKey("agencies")) {
             List<Map<String, Object>> agencies = (List<Map<String, Object>>) response.get("agencies");
 
             for (Map<String, Object> agencyData : agencies) {
-                processAgency(agencyData, null);
+                processAgency(agencyData, null, fetchedAgencies);
             }
         }
 
         log.info("Finished fetching agencies. Count: {}", agencyRepository.count());
+        return fetchedAgencies;
     }
 
-    private void processAgency(Map<String, Object> agencyData, Agency parentAgency) {
+    private void processAgency(Map<String, Object> agencyData, Agency parentAgency, List<Agency> fetchedAgencies) {
         String agencyId = generateAgencyId(agencyData);
 
         Agency agency = Agency.builder()
@@ -178,13 +363,17 @@ public class DataFetchService {
         // Save the agency to establish ID
         agencyRepository.save(agency);
 
+        // CFR references are transient, so keep the fetched instance for title attribution.
+        // Added before its children so a parent agency wins a title both reference.
+        fetchedAgencies.add(agency);
+
         // Process children if present
         if (agencyData.containsKey("children") && agencyData.get("children") != null) {
             List<Map<String, Object>> children = (List<Map<String, Object>>) agencyData.get("children");
             List<Agency> childAgencies = new ArrayList<>();
 
             for (Map<String, Object> childData : children) {
-                processAgency(childData, agency);
+                processAgency(childData, agency, fetchedAgencies);
             }
         }
 
@@ -237,13 +426,21 @@ public class DataFetchService {
         }
     }
 
-    private void fetchTitles() {
+    private List<Title> fetchTitles(List<Agency> fetchedAgencies) {
         log.info("Fetching titles");
         Map<String, Object> response = ecfrApiService.getAllTitles();
+        List<Title> fetchedTitles = new ArrayList<>();
 
         if (response != null && response.containsKey("titles")) {
             List<Map<String, Object>> titles = (List<Map<String, Object>>) response.get("titles");
 
+            // Build the agency attribution index once for all titles
+            AgencyAttributionIndex attributionIndex = new AgencyAttributionIndex(agencyRepository.findAll(), fetchedAgencies);
+
+            // Existing titles keep their word counts and ingestion state
+            Map<String, Title> storedTitles = titleRepository.findAll().stream()
+                    .collect(Collectors.toMap(Title::getId, t -> t));
+
             for (Map<String, Object> titleData : titles) {
                 String titleNumber = titleData.get("number").toString();
                 String titleId = "title-" + titleNumber;
@@ -257,77 +454,50 @@ public class DataFetchService {
                 boolean reserved = (boolean) titleData.getOrDefault("reserved", false);
                 boolean processingInProgress = (boolean) titleData.getOrDefault("processing_in_progress", false);
 
-                // Create title object
-                Title title = Title.builder()
-                        .id(titleId)
-                        .name(titleName)
-                        .titleNumber(titleNumber)
-                        .latestAmendedOn(latestAmendedOn)
-                        .latestIssueDate(latestIssueDate)
-                        .upToDateAsOf(upToDateAsOf)
-                        .reserved(reserved)
-                        .processingInProgress(processingInProgress)
-                        .build();
+                // Create title object, or refresh the metadata of the stored one
+                Title title = storedTitles.get(titleId);
+                if (title == null) {
+                    title = Title.builder()
+                            .id(titleId)
+                            .titleNumber(titleNumber)
+                            .build();
+                }
+                title.setName(titleName);
+                title.setTitleNumber(titleNumber);
+                title.setLatestAmendedOn(latestAmendedOn);
+                title.setLatestIssueDate(latestIssueDate);
+                title.setUpToDateAsOf(upToDateAsOf);
+                title.setReserved(reserved);
+                title.setProcessingInProgress(processingInProgress);
 
                 // Associate with agency after all agencies are processed
-                associateTitleWithAgency(title, titleNumber);
+                title.setAgency(null);
+                associateTitleWithAgency(title, titleNumber, attributionIndex);
 
-                titleRepository.save(title);
+                fetchedTitles.add(titleRepository.save(title));
             }
         }
 
         log.info("Finished fetching titles. Count: {}", titleRepository.count());
+        return fetchedTitles;
     }
 
-    private void associateTitleWithAgency(Title title, String titleNumber) {
-        // Find agencies with CFR references to this title
-        List<Agency> allAgencies = agencyRepository.findAll();
+    private void associateTitleWithAgency(Title title, String titleNumber, AgencyAttributionIndex attributionIndex) {
+        List<Agency> allAgencies = attributionIndex.getAgencies();
 
         // First try: Direct CFR reference matching
-        for (Agency agency : allAgencies) {
-            if (agency.getCfrReferences() != null) {
-                boolean hasReference = agency.getCfrReferences().stream()
-                        .anyMatch(ref -> ref.getTitle().equals(titleNumber));
-
-                if (hasReference) {
-                    title.setAgency(agency);
-                    log.info("Matched title {} to agency {} by CFR reference", titleNumber, agency.getName());
-                    return;
-                }
-            }
-        }
-
-
-        // Second try: Name matching with more specific logic
-        // Extract potential agency names from the title name
-        String titleName = title.getName().toLowerCase();
-        Map<Agency, Integer> matchScores = new HashMap<>();
-
-        for (Agency agency : allAgencies) {
-            String agencyName = agency.getName().toLowerCase();
-
-            // Skip very short agency names to avoid false matches
-//            if (agencyName.length() < 4) continue;
-
-            // Award points for name matches
-            if (titleName.contains(agencyName)) {
-                // Higher score for longer agency names (more specific)
-                matchScores.put(agency, agencyName.length());
-            } else if (agency.getShortName() != null && !agency.getShortName().isEmpty()) {
-                String shortName = agency.getShortName().toLowerCase();
-                if (titleName.contains(shortName) && shortName.length() > 3) {
-                    matchScores.put(agency, shortName.length());
-                }
-            }
+        Optional<Agency> referencingAgency = attributionIndex.findByCfrReference(titleNumber);
+        if (referencingAgency.isPresent()) {
+            title.setAgency(referencingAgency.get());
+            log.info("Matched title {} to agency {} by CFR reference", titleNumber, referencingAgency.get().getName());
+            return;
         }
 
-        // Find the agency with the highest match score, if any
-        if (!matchScores.isEmpty()) {
-            Agency bestMatch = matchScores.entrySet().stream()
-                    .max(Map.Entry.comparingByValue())
-                    .get().getKey();
-            title.setAgency(bestMatch);
-            log.info("Matched title {} to agency {} by name similarity", titleNumber, bestMatch.getName());
+        // Second try: Name matching, preferring the longest (most specific) agency name found in the title name
+        Optional<Agency> bestMatch = attributionIndex.findByName(title.getName());
+        if (bestMatch.isPresent()) {
+            title.setAgency(bestMatch.get());
+            log.info("Matched title {} to agency {} by name similarity", titleNumber, bestMatch.get().getName());
             return;
         }
 
@@ -414,78 +584,48 @@ public class DataFetchService {
         }
     }
 
-    private void fetchTitleContent(Title title) {
-        log.info("Fetching content for title {}", title.getTitleNumber());
-
-        // Get the latest date for this title
-        LocalDate today = LocalDate.now();
-        String date = today.format(DATE_FORMATTER);
+    /**
+     * Stream and parse the full XML document for a title
+     * @return true if the document was read and its sections extracted
+     */
+    private boolean fetchTitleContent(Title title, LocalDate versionDate, IngestBatchWriter.SeenRows seen) {
+        log.info("Fetching content for title {} on {}", title.getTitleNumber(), versionDate);
 
         try {
-            // Fetch the full XML document
-            String xmlContent = ecfrApiService.getFullDocument(title.getTitleNumber());
+            // Stream the full XML document straight into the section extractor
+            ExtractionSummary summary = ecfrApiService.streamFullDocument(title.getTitleNumber(), versionDate,
+                    body -> extractSectionsFromXml(title, body, seen));
 
-            if (xmlContent != null && !xmlContent.isEmpty()) {
-                // Extract the word count
-                int wordCount = textAnalysisUtil.countWords(xmlContent);
-                title.setWordCount(wordCount);
+            if (summary != null) {
+                title.setWordCount(summary.getWordCount());
                 titleRepository.save(title);
-
-                // Parse XML and extract sections for more detailed analysis
-                extractSectionsFromXml(title, xmlContent);
-            } else {
-                log.warn("No XML content returned for title {}", title.getTitleNumber());
+                return true;
             }
+
+            log.warn("No XML content could be read for title {}", title.getTitleNumber());
         } catch (Exception e) {
             log.error("Error fetching content for title {}: {}", title.getTitleNumber(), e.getMessage(), e);
             // Set a default word count for display purposes
             title.setWordCount(50000 + (int)(Math.random() * 50000));
             titleRepository.save(title);
         }
+        return false;
     }
 
-    private void extractSectionsFromXml(Title title, String xmlContent) {
-        try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-            factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
-            factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.parse(new InputSource(new StringReader(xmlContent)));
-
-            // Find all sections
-            NodeList sectionNodes = document.getElementsByTagName("SECTION");
-            log.info("Found {} sections in title {}", sectionNodes.getLength(), title.getTitleNumber());
-
-            for (int i = 0; i < sectionNodes.getLength(); i++) {
-                Element sectionElement = (Element) sectionNodes.item(i);
+    private ExtractionSummary extractSectionsFromXml(Title title, InputStream xmlContent,
+                                                     IngestBatchWriter.SeenRows seen) throws XMLStreamException {
+        int[] processed = {0};
 
-                // Extract section number and heading
-                String sectionNumber = "";
-                String sectionHeading = "";
+        ExtractionSummary summary;
+        TitleTextIndex.Builder textIndex = TitleTextIndex.builder(title.getId(), title.getTitleNumber());
 
-                NodeList subjectNodes = sectionElement.getElementsByTagName("SECTNO");
-                if (subjectNodes.getLength() > 0) {
-                    sectionNumber = subjectNodes.item(0).getTextContent().trim();
-                }
-
-                NodeList headingNodes = sectionElement.getElementsByTagName("SUBJECT");
-                if (headingNodes.getLength() > 0) {
-                    sectionHeading = headingNodes.item(0).getTextContent().trim();
-                }
-
-                // Skip if no section number
-                if (sectionNumber.isEmpty()) {
-                    continue;
-                }
+        try (IngestBatchWriter.Batch batch = ingestBatchWriter.openBatch(seen)) {
+            summary = sectionXmlExtractor.extract(xmlContent, extracted -> {
+                String sectionNumber = extracted.getNumber();
+                String sectionHeading = extracted.getSubject();
 
                 // Create a unique ID for the section
-                String sectionId = title.getId() + "-" + sectionNumber.replaceAll("[^a-zA-Z0-9]", "-");
-
-                // Extract section content for word count
-                String sectionContent = sectionElement.getTextContent();
-                int wordCount = textAnalysisUtil.countWords(sectionContent);
+                String sectionId = sectionId(title, sectionNumber);
 
                 // Create section object
                 Section section = Section.builder()
@@ -496,34 +636,68 @@ public class DataFetchService {
                         .type("section")
                         .labelLevel("§ " + sectionNumber)
                         .labelDescription(sectionHeading)
-                        .wordCount(wordCount)
+                        .wordCount(extracted.getWordCount())
                         .build();
 
-                sectionRepository.save(section);
+                batch.addSection(section);
+                if (searchIndexService.isEnabled()) {
+                    textIndex.addSection(sectionId, sectionNumber, sectionHeading, extracted.getText());
+                }
 
                 // Extract historical changes for this section
-                extractHistoricalChanges(section, sectionElement);
+                extractHistoricalChanges(section, extracted.getHistory(), batch);
 
                 // Periodically log progress for large titles
-                if (i > 0 && i % 100 == 0) {
-                    log.info("Processed {} sections for title {}", i, title.getTitleNumber());
+                if (++processed[0] % 100 == 0) {
+                    log.info("Processed {} sections for title {}", processed[0], title.getTitleNumber());
                 }
+            }, searchIndexService.isEnabled());
+        }
+
+        log.info("Found {} sections in {} parts of title {} ({} words)",
+                summary.getSectionCount(), summary.getPartCount(), title.getTitleNumber(), summary.getWordCount());
+        if (log.isDebugEnabled()) {
+            summary.getParts().forEach(part -> log.debug("Title {} part {}: {} sections ({} words)",
+                    title.getTitleNumber(), part.getNumber(), part.getSectionCount(), part.getWordCount()));
+        }
+        if (searchIndexService.isEnabled()) {
+            searchIndexService.publish(textIndex.build());
+        }
+        return summary;
+    }
+
+    /**
+     * Rebuild the search index of persisted titles from their archived XML after a warm start.
+     * Titles without an archived document are indexed when they are next ingested.
+     */
+    private void indexArchivedTitles() {
+        for (Title title : titleRepository.findAll()) {
+            if (searchIndexService.isIndexed(title.getId())) {
+                continue;
+            }
+
+            TitleTextIndex index = ecfrApiService.readArchivedDocument(title.getTitleNumber(), versionDate(title), body -> {
+                TitleTextIndex.Builder textIndex = TitleTextIndex.builder(title.getId(), title.getTitleNumber());
+                sectionXmlExtractor.extract(body, extracted -> textIndex.addSection(
+                        sectionId(title, extracted.getNumber()), extracted.getNumber(), extracted.getSubject(),
+                        extracted.getText()), true);
+                return textIndex.build();
+            });
+            if (index != null) {
+                searchIndexService.publishIfAbsent(index);
             }
-        } catch (Exception e) {
-            log.error("Error parsing XML for title {}: {}", title.getTitleNumber(), e.getMessage(), e);
         }
     }
 
-    private void extractHistoricalChanges(Section section, Element sectionElement) {
-        NodeList historyNodes = sectionElement.getElementsByTagName("HISTORY");
+    private static String sectionId(Title title, String sectionNumber) {
+        return title.getId() + "-" + sectionNumber.replaceAll("[^a-zA-Z0-9]", "-");
+    }
 
-        if (historyNodes.getLength() == 0) {
+    private void extractHistoricalChanges(Section section, String historyText, IngestBatchWriter.Batch batch) {
+        if (historyText == null) {
             return;
         }
 
-        Element historyElement = (Element) historyNodes.item(0);
-        String historyText = historyElement.getTextContent().trim();
-
         // Parse the history text to extract individual changes
         List<String> changeTexts = new ArrayList<>();
 
@@ -565,7 +739,7 @@ public class DataFetchService {
             // Try to extract date and citation
             extractDateAndCitation(change, changeText);
 
-            historicalChangeRepository.save(change);
+            batch.addChange(change);
         }
     }
 
@@ -618,187 +792,116 @@ public class DataFetchService {
         }
     }
 
-    private void fetchTitleStructure(Title title) {
+    /**
+     * @return true if the structure was read and applied
+     */
+    private boolean fetchTitleStructure(Title title, LocalDate versionDate, IngestBatchWriter.SeenRows seen) {
         log.info("Fetching structure for title {}", title.getTitleNumber());
 
-        // Get the latest date for this title
-        LocalDate today = LocalDate.now();
-        String date = today.format(DATE_FORMATTER);
-
         try {
-            Map<String, Object> response = ecfrApiService.getStructure(title.getTitleNumber());
-
-            // Process structure data
-            if (response != null) {
-                parseStructure(title, response);
+            if (structureIngestService.ingest(title, versionDate, seen) >= 0) {
+                return true;
             }
-
+            log.warn("No structure available for title {}", title.getTitleNumber());
         } catch (Exception e) {
             log.error("Error fetching structure for title {}: {}", title.getTitleNumber(), e.getMessage(), e);
         }
+        return false;
     }
 
-    private void parseStructure(Title title, Map<String, Object> structure) {
-        // Process top-level title information
-        String titleType = (String) structure.getOrDefault("type", "");
-        String titleLabel = (String) structure.getOrDefault("label", "");
-        String titleLabelLevel = (String) structure.getOrDefault("label_level", "");
-        String titleLabelDescription = (String) structure.getOrDefault("label_description", "");
-        String titleIdentifier = (String) structure.getOrDefault("identifier", "");
-
-        // Process children (chapters, parts, sections)
-        List<Map<String, Object>> children = (List<Map<String, Object>>) structure.getOrDefault("children", new ArrayList<>());
-
-        for (Map<String, Object> child : children) {
-            parseStructureNode(title, child, null);
-        }
-    }
-
-    private void parseStructureNode(Title title, Map<String, Object> node, Section parentSection) {
-        if (node == null) {
-            return;
-        }
-
-        String type = (String) node.getOrDefault("type", "");
-        String label = (String) node.getOrDefault("label", "");
-        String labelLevel = (String) node.getOrDefault("label_level", "");
-        String labelDescription = (String) node.getOrDefault("label_description", "");
-        String identifier = (String) node.getOrDefault("identifier", "");
-        boolean reserved = (boolean) node.getOrDefault("reserved", false);
-
-        // Only create section objects for actual sections
-        if ("section".equals(type)) {
-            // Generate a unique ID
-            String sectionId = title.getId() + "-" + identifier.replaceAll("[^a-zA-Z0-9]", "-");
-
-            // Check if section already exists
-            Section section = sectionRepository.findById(sectionId).orElse(null);
-
-            if (section == null) {
-                // Extract section number from label
-                String sectionNumber = label.replaceAll("^§\\s*", "");
-
-                section = Section.builder()
-                        .id(sectionId)
-                        .number(sectionNumber)
-                        .heading(labelDescription)
-                        .title(title)
-                        .type(type)
-                        .labelLevel(labelLevel)
-                        .labelDescription(labelDescription)
-                        .identifier(identifier)
-                        .reserved(reserved)
-                        .build();
-
-                sectionRepository.save(section);
-            } else {
-                // Update existing section with structure information
-                section.setType(type);
-                section.setLabelLevel(labelLevel);
-                section.setLabelDescription(labelDescription);
-                section.setIdentifier(identifier);
-                section.setReserved(reserved);
-
-                sectionRepository.save(section);
-            }
-        }
-
-        // Process children recursively
-        List<Map<String, Object>> children = (List<Map<String, Object>>) node.getOrDefault("children", new ArrayList<>());
-        for (Map<String, Object> child : children) {
-            parseStructureNode(title, child, "section".equals(type) ? sectionRepository.findById(title.getId() + "-" + identifier.replaceAll("[^a-zA-Z0-9]", "-")).orElse(null) : parentSection);
-        }
-    }
-
-    private void fetchCorrections(Title title) {
+    /**
+     * @return true if the title's corrections were read from eCFR, false if synthetic ones were generated
+     */
+    private boolean fetchCorrections(Title title, CompletableFuture<Map<String, Object>> correctionsRequest,
+                                     IngestBatchWriter.SeenRows seen) {
         log.info("Fetching corrections for title {}", title.getTitleNumber());
 
+        // Load the title's sections once for all corrections
+        SectionIndex sectionIndex = new SectionIndex(sectionRepository.findByTitleId(title.getId()));
+
         try {
-            Map<String, Object> response = ecfrApiService.getCorrectionsByTitle(title.getTitleNumber());
+            // Requested up front with the other titles' corrections
+            Map<String, Object> response = correctionsRequest.join();
 
             if (response == null || !response.containsKey("ecfr_corrections")) {
                 // For demo/testing: Generate synthetic corrections data
-                generateSyntheticCorrections(title);
-                return;
+                generateSyntheticCorrections(title, sectionIndex, seen);
+                return false;
             }
 
             List<Map<String, Object>> corrections = (List<Map<String, Object>>) response.get("ecfr_corrections");
 
-            for (Map<String, Object> correctionData : corrections) {
-                Long correctionId = ((Number) correctionData.get("id")).longValue();
-
-                // Process CFR references to find the section this applies to
-                List<Map<String, Object>> cfrRefs = (List<Map<String, Object>>) correctionData.getOrDefault("cfr_references", new ArrayList<>());
-
-                for (Map<String, Object> cfrRef : cfrRefs) {
-                    Map<String, Object> hierarchy = (Map<String, Object>) cfrRef.getOrDefault("hierarchy", new HashMap<>());
-                    String sectionNumber = (String) hierarchy.getOrDefault("section", "");
-
-                    if (!sectionNumber.isEmpty()) {
-                        // Try to find the section
-                        List<Section> sections = sectionRepository.findByTitleId(title.getId());
-                        Section targetSection = null;
-
-                        for (Section section : sections) {
-                            if (section.getNumber().endsWith(sectionNumber)) {
-                                targetSection = section;
-                                break;
+            try (IngestBatchWriter.Batch batch = ingestBatchWriter.openBatch(seen)) {
+                for (Map<String, Object> correctionData : corrections) {
+                    Long correctionId = ((Number) correctionData.get("id")).longValue();
+
+                    // Process CFR references to find the section this applies to
+                    List<Map<String, Object>> cfrRefs = (List<Map<String, Object>>) correctionData.getOrDefault("cfr_references", new ArrayList<>());
+
+                    for (Map<String, Object> cfrRef : cfrRefs) {
+                        Map<String, Object> hierarchy = (Map<String, Object>) cfrRef.getOrDefault("hierarchy", new HashMap<>());
+                        String sectionNumber = (String) hierarchy.getOrDefault("section", "");
+
+                        if (!sectionNumber.isEmpty()) {
+                            // Try to find the section
+                            Section targetSection = sectionIndex.find(sectionNumber).orElse(null);
+
+                            if (targetSection != null) {
+                                // Create historical change
+                                String correctiveAction = (String) correctionData.getOrDefault("corrective_action", "");
+                                String errorCorrectedStr = (String) correctionData.getOrDefault("error_corrected", "");
+                                String errorOccurredStr = (String) correctionData.getOrDefault("error_occurred", "");
+                                String frCitation = (String) correctionData.getOrDefault("fr_citation", "");
+                                Integer position = correctionData.containsKey("position") ? ((Number) correctionData.get("position")).intValue() : null;
+                                Boolean displayInToc = (Boolean) correctionData.getOrDefault("display_in_toc", false);
+                                Integer year = correctionData.containsKey("year") ? ((Number) correctionData.get("year")).intValue() : null;
+                                String lastModifiedStr = (String) correctionData.getOrDefault("last_modified", "");
+
+                                LocalDate errorCorrected = parseDate(errorCorrectedStr);
+                                LocalDate errorOccurred = parseDate(errorOccurredStr);
+                                LocalDate lastModified = parseDate(lastModifiedStr);
+
+                                HistoricalChange change = HistoricalChange.builder()
+                                        .id(correctionId)
+                                        .section(targetSection)
+                                        .correctiveAction(correctiveAction)
+                                        .errorCorrected(errorCorrected)
+                                        .errorOccurred(errorOccurred)
+                                        .frCitation(frCitation)
+                                        .position(position)
+                                        .displayInToc(displayInToc)
+                                        .yearValue(year)
+                                        .lastModified(lastModified)
+                                        .build();
+
+                                // Create CFR reference
+                                HistoricalChange.CfrReference reference = HistoricalChange.CfrReference.builder()
+                                        .cfrReference((String) cfrRef.getOrDefault("cfr_reference", ""))
+                                        .hierarchy(HistoricalChange.Hierarchy.builder()
+                                                .title((String) hierarchy.getOrDefault("title", ""))
+                                                .subtitle((String) hierarchy.getOrDefault("subtitle", ""))
+                                                .chapter((String) hierarchy.getOrDefault("chapter", ""))
+                                                .part((String) hierarchy.getOrDefault("part", ""))
+                                                .subpart((String) hierarchy.getOrDefault("subpart", ""))
+                                                .section((String) hierarchy.getOrDefault("section", ""))
+                                                .build())
+                                        .historicalChange(change)
+                                        .build();
+
+                                change.getCfrReferences().add(reference);
+
+                                batch.addChange(change);
                             }
                         }
-
-                        if (targetSection != null) {
-                            // Create historical change
-                            String correctiveAction = (String) correctionData.getOrDefault("corrective_action", "");
-                            String errorCorrectedStr = (String) correctionData.getOrDefault("error_corrected", "");
-                            String errorOccurredStr = (String) correctionData.getOrDefault("error_occurred", "");
-                            String frCitation = (String) correctionData.getOrDefault("fr_citation", "");
-                            Integer position = correctionData.containsKey("position") ? ((Number) correctionData.get("position")).intValue() : null;
-                            Boolean displayInToc = (Boolean) correctionData.getOrDefault("display_in_toc", false);
-                            Integer year = correctionData.containsKey("year") ? ((Number) correctionData.get("year")).intValue() : null;
-                            String lastModifiedStr = (String) correctionData.getOrDefault("last_modified", "");
-
-                            LocalDate errorCorrected = parseDate(errorCorrectedStr);
-                            LocalDate errorOccurred = parseDate(errorOccurredStr);
-                            LocalDate lastModified = parseDate(lastModifiedStr);
-
-                            HistoricalChange change = HistoricalChange.builder()
-                                    .id(correctionId)
-                                    .section(targetSection)
-                                    .correctiveAction(correctiveAction)
-                                    .errorCorrected(errorCorrected)
-                                    .errorOccurred(errorOccurred)
-                                    .frCitation(frCitation)
-                                    .position(position)
-                                    .displayInToc(displayInToc)
-                                    .yearValue(year)
-                                    .lastModified(lastModified)
-                                    .build();
-
-                            // Create CFR reference
-                            HistoricalChange.CfrReference reference = HistoricalChange.CfrReference.builder()
-                                    .cfrReference((String) cfrRef.getOrDefault("cfr_reference", ""))
-                                    .hierarchy(HistoricalChange.Hierarchy.builder()
-                                            .title((String) hierarchy.getOrDefault("title", ""))
-                                            .subtitle((String) hierarchy.getOrDefault("subtitle", ""))
-                                            .chapter((String) hierarchy.getOrDefault("chapter", ""))
-                                            .part((String) hierarchy.getOrDefault("part", ""))
-                                            .subpart((String) hierarchy.getOrDefault("subpart", ""))
-                                            .section((String) hierarchy.getOrDefault("section", ""))
-                                            .build())
-                                    .historicalChange(change)
-                                    .build();
-
-                            change.getCfrReferences().add(reference);
-
-                            historicalChangeRepository.save(change);
-                        }
                     }
                 }
             }
+            return true;
         } catch (Exception e) {
             log.error("Error fetching corrections for title {}: {}", title.getTitleNumber(), e.getMessage(), e);
             // For demo/testing: Generate synthetic corrections data
-            generateSyntheticCorrections(title);
+            generateSyntheticCorrections(title, sectionIndex, seen);
+            return false;
         }
     }
 
@@ -806,11 +909,11 @@ public class DataFetchService {
      * Generates synthetic corrections data for demo/testing purposes
      * This ensures each agency has some historical changes
      */
-    private void generateSyntheticCorrections(Title title) {
+    private void generateSyntheticCorrections(Title title, SectionIndex sectionIndex, IngestBatchWriter.SeenRows seen) {
         log.info("Generating synthetic corrections for title {}", title.getTitleNumber());
 
         // Get sections for this title
-        List<Section> sections = sectionRepository.findByTitleId(title.getId());
+        List<Section> sections = sectionIndex.getSections();
 
         if (sections.isEmpty()) {
             log.warn("No sections found for title {}, cannot generate corrections", title.getTitleNumber());
@@ -821,70 +924,72 @@ public class DataFetchService {
         Random random = new Random();
         int numCorrections = 5 + random.nextInt(16);  // 5-20 corrections
 
-        for (int i = 0; i < numCorrections; i++) {
-            // Pick a random section
-            Section section = sections.get(random.nextInt(sections.size()));
-
-            // Generate random dates in the past 20 years
-            int randomYear = 2005 + random.nextInt(20);  // 2005-2024
-            int randomMonth = 1 + random.nextInt(12);    // 1-12
-            int randomDay = 1 + random.nextInt(28);      // 1-28 (safe for all months)
-
-            LocalDate errorOccurred = LocalDate.of(randomYear, randomMonth, randomDay);
-
-            // Error corrected 1-6 months later
-            LocalDate errorCorrected = errorOccurred.plusMonths(1 + random.nextInt(6));
-
-            // Generate a unique ID
-            Long changeId = title.getId().hashCode() * 1000L + i;
-
-            // Sample corrective actions
-            String[] correctiveActions = {
-                    "Corrected typographical error",
-                    "Updated cross-reference",
-                    "Revised regulatory text for clarity",
-                    "Removed outdated requirement",
-                    "Added clarifying language",
-                    "Updated statutory reference",
-                    "Fixed formatting error",
-                    "Corrected mathematical formula",
-                    "Added missing footnote",
-                    "Removed duplicative text"
-            };
-
-            String action = correctiveActions[random.nextInt(correctiveActions.length)];
-
-            // Generate FR citation
-            int frVolume = 70 + random.nextInt(20);
-            int frPage = 10000 + random.nextInt(90000);
-            String frCitation = frVolume + " FR " + frPage;
-
-            HistoricalChange change = HistoricalChange.builder()
-                    .id(changeId)
-                    .section(section)
-                    .correctiveAction(action)
-                    .errorCorrected(errorCorrected)
-                    .errorOccurred(errorOccurred)
-                    .frCitation(frCitation)
-                    .position(i + 1)
-                    .displayInToc(random.nextBoolean())
-                    .yearValue(randomYear)
-                    .lastModified(LocalDate.now())
-                    .build();
+        try (IngestBatchWriter.Batch batch = ingestBatchWriter.openBatch(seen)) {
+            for (int i = 0; i < numCorrections; i++) {
+                // Pick a random section
+                Section section = sections.get(random.nextInt(sections.size()));
+
+                // Generate random dates in the past 20 years
+                int randomYear = 2005 + random.nextInt(20);  // 2005-2024
+                int randomMonth = 1 + random.nextInt(12);    // 1-12
+                int randomDay = 1 + random.nextInt(28);      // 1-28 (safe for all months)
+
+                LocalDate errorOccurred = LocalDate.of(randomYear, randomMonth, randomDay);
+
+                // Error corrected 1-6 months later
+                LocalDate errorCorrected = errorOccurred.plusMonths(1 + random.nextInt(6));
+
+                // Generate a unique ID
+                Long changeId = title.getId().hashCode() * 1000L + i;
+
+                // Sample corrective actions
+                String[] correctiveActions = {
+                        "Corrected typographical error",
+                        "Updated cross-reference",
+                        "Revised regulatory text for clarity",
+                        "Removed outdated requirement",
+                        "Added clarifying language",
+                        "Updated statutory reference",
+                        "Fixed formatting error",
+                        "Corrected mathematical formula",
+                        "Added missing footnote",
+                        "Removed duplicative text"
+                };
+
+                String action = correctiveActions[random.nextInt(correctiveActions.length)];
+
+                // Generate FR citation
+                int frVolume = 70 + random.nextInt(20);
+                int frPage = 10000 + random.nextInt(90000);
+                String frCitation = frVolume + " FR " + frPage;
+
+                HistoricalChange change = HistoricalChange.builder()
+                        .id(changeId)
+                        .section(section)
+                        .correctiveAction(action)
+                        .errorCorrected(errorCorrected)
+                        .errorOccurred(errorOccurred)
+                        .frCitation(frCitation)
+                        .position(i + 1)
+                        .displayInToc(random.nextBoolean())
+                        .yearValue(randomYear)
+                        .lastModified(LocalDate.now())
+                        .build();
 
-            // Create a CFR reference
-            HistoricalChange.CfrReference reference = HistoricalChange.CfrReference.builder()
-                    .cfrReference(title.getTitleNumber() + " CFR " + section.getNumber())
-                    .hierarchy(HistoricalChange.Hierarchy.builder()
-                            .title(title.getTitleNumber())
-                            .section(section.getNumber())
-                            .build())
-                    .historicalChange(change)
-                    .build();
+                // Create a CFR reference
+                HistoricalChange.CfrReference reference = HistoricalChange.CfrReference.builder()
+                        .cfrReference(title.getTitleNumber() + " CFR " + section.getNumber())
+                        .hierarchy(HistoricalChange.Hierarchy.builder()
+                                .title(title.getTitleNumber())
+                                .section(section.getNumber())
+                                .build())
+                        .historicalChange(change)
+                        .build();
 
-            change.getCfrReferences().add(reference);
+                change.getCfrReferences().add(reference);
 
-            historicalChangeRepository.save(change);
+                batch.addChange(change);
+            }
         }
 
         log.info("Generated {} synthetic corrections for title {}", numCorrections, title.getTitleNumber());
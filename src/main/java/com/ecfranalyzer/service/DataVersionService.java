@@ -0,0 +1,33 @@
+package com.ecfranalyzer.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the data served by the API, bumped whenever ingestion commits a change
+ * or the analytics snapshot is replaced. Used to derive ETags for read endpoints.
+ */
+@Service
+public class DataVersionService {
+
+    // Distinguishes versions across restarts: the counter starts over even when the store persists
+    private final long epoch = System.currentTimeMillis();
+
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    public long bump() {
+        return version.incrementAndGet();
+    }
+
+    /**
+     * @return Strong ETag for the current data version
+     */
+    public String etag() {
+        return "\"" + epoch + "-" + version.get() + "\"";
+    }
+}
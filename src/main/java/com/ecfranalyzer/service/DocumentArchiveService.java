@@ -0,0 +1,420 @@
+package com.ecfranalyzer.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local, content-addressed archive of downloaded full-title XML documents.
+ * <p>
+ * Documents are stored gzip-compressed under {@code objects/<sha256>.xml.gz}, where the hash is
+ * taken over the uncompressed XML, and {@code refs/title-<number>/<date>} points a title and date
+ * at its object. Archived documents are read back through a memory-mapped file.
+ * <p>
+ * Only the newest version of each title is kept: archiving a title drops its refs for earlier
+ * dates, and objects no ref points at any more are deleted.
+ */
+@Service
+@Slf4j
+public class DocumentArchiveService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final boolean enabled;
+    private final Path objectsDir;
+    private final Path refsDir;
+
+    /**
+     * Guards refs and object deletion, so a committed object is never collected before its ref exists
+     */
+    private final Object refLock = new Object();
+
+    public DocumentArchiveService(@Value("${ecfr.archive.enabled:true}") boolean enabled,
+                                  @Value("${ecfr.archive.directory:data/archive}") String directory) {
+        Path root = Paths.get(directory).toAbsolutePath();
+        this.objectsDir = root.resolve("objects");
+        this.refsDir = root.resolve("refs");
+
+        boolean ready = enabled;
+        if (enabled) {
+            try {
+                Files.createDirectories(objectsDir);
+                Files.createDirectories(refsDir);
+                log.info("Document archive enabled at {}", root);
+            } catch (IOException e) {
+                log.error("Could not create document archive at {}, archiving disabled: {}", root, e.getMessage());
+                ready = false;
+            }
+        }
+        this.enabled = ready;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Find the archived document for a title on a date
+     * @param titleNumber The title number
+     * @param date The document date (yyyy-MM-dd)
+     * @return Path of the compressed object, if archived
+     */
+    public Optional<Path> find(String titleNumber, String date) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        Path ref = refPath(titleNumber, date);
+        if (!Files.isRegularFile(ref)) {
+            return Optional.empty();
+        }
+
+        try {
+            String hash = readRef(ref);
+            Path object = objectPath(hash);
+            return Files.isRegularFile(object) ? Optional.of(object) : Optional.empty();
+        } catch (IOException e) {
+            log.warn("Could not read archive ref {}: {}", ref, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Open an archived document for reading through a memory-mapped view of the compressed file
+     * @param object Path returned by {@link #find(String, String)}
+     * @return Stream of the uncompressed XML
+     */
+    public InputStream open(Path object) throws IOException {
+        try (FileChannel channel = FileChannel.open(object, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                // Too large for a single mapping, read it as a plain file instead
+                return new GZIPInputStream(Files.newInputStream(object), BUFFER_SIZE);
+            }
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new GZIPInputStream(new ByteBufferInputStream(mapped), BUFFER_SIZE);
+        }
+    }
+
+    /**
+     * Wrap an upstream document stream so that everything read from it is also written to the archive.
+     * The archive entry is only committed if {@link ArchivingStream#markComplete()} is called before
+     * the stream is closed; otherwise the partial copy is discarded.
+     * @param titleNumber The title number
+     * @param date The document date (yyyy-MM-dd)
+     * @param upstream The downloaded document
+     * @return A stream yielding the same bytes as {@code upstream}
+     */
+    public ArchivingStream archiving(String titleNumber, String date, InputStream upstream) {
+        if (!enabled) {
+            return new ArchivingStream(upstream);
+        }
+
+        try {
+            return new ArchivingInputStream(upstream, titleNumber, date);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            log.warn("Could not archive title {} on {}: {}", titleNumber, date, e.getMessage());
+            return new ArchivingStream(upstream);
+        }
+    }
+
+    /**
+     * Remove the archived document of a title on a date, e.g. because it could not be read,
+     * so that it is downloaded again
+     */
+    public void evict(String titleNumber, String date) {
+        if (!enabled) {
+            return;
+        }
+
+        Path ref = refPath(titleNumber, date);
+        synchronized (refLock) {
+            try {
+                if (Files.isRegularFile(ref)) {
+                    String hash = readRef(ref);
+                    Files.delete(ref);
+                    deleteIfUnreferenced(hash);
+                    log.info("Evicted title {} on {} from the archive", titleNumber, date);
+                }
+            } catch (IOException e) {
+                log.warn("Could not evict title {} on {} from the archive: {}", titleNumber, date, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Drop a title's refs for dates before the given one, and the objects only they pointed at.
+     * Caller holds {@link #refLock}.
+     */
+    private void dropEarlierRefs(String titleNumber, String date) throws IOException {
+        List<String> dropped = new ArrayList<>();
+        try (DirectoryStream<Path> refs = Files.newDirectoryStream(refPath(titleNumber, date).getParent())) {
+            for (Path ref : refs) {
+                String name = ref.getFileName().toString();
+                // Dates are ISO formatted, so they sort as strings; skip refs still being written
+                if (!name.endsWith(".tmp") && name.compareTo(date) < 0) {
+                    dropped.add(readRef(ref));
+                    Files.delete(ref);
+                }
+            }
+        }
+        for (String hash : dropped) {
+            deleteIfUnreferenced(hash);
+        }
+    }
+
+    /**
+     * Delete an object unless some ref still points at it. Caller holds {@link #refLock}.
+     */
+    private void deleteIfUnreferenced(String hash) throws IOException {
+        try (Stream<Path> refs = Files.walk(refsDir)) {
+            boolean referenced = refs.filter(Files::isRegularFile)
+                    .filter(ref -> !ref.getFileName().toString().endsWith(".tmp"))
+                    .anyMatch(ref -> hash.equals(readRefQuietly(ref)));
+            if (!referenced && Files.deleteIfExists(objectPath(hash))) {
+                log.info("Deleted unreferenced archive object {}", hash);
+            }
+        }
+    }
+
+    private static String readRef(Path ref) throws IOException {
+        return Files.readString(ref, StandardCharsets.US_ASCII).trim();
+    }
+
+    private static String readRefQuietly(Path ref) {
+        try {
+            return readRef(ref);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private Path refPath(String titleNumber, String date) {
+        return refsDir.resolve("title-" + titleNumber).resolve(date);
+    }
+
+    private Path objectPath(String hash) {
+        return objectsDir.resolve(hash + ".xml.gz");
+    }
+
+    /**
+     * Document stream returned by {@link #archiving(String, String, InputStream)}. This base class
+     * only passes the upstream bytes through, for when archiving is disabled or unavailable.
+     */
+    public static class ArchivingStream extends FilterInputStream {
+
+        ArchivingStream(InputStream upstream) {
+            super(upstream);
+        }
+
+        /**
+         * Accept the document for the archive once it has been handled successfully
+         */
+        public void markComplete() {
+        }
+    }
+
+    /**
+     * Tees the upstream bytes into a compressed temporary file, then moves it to its content address
+     */
+    private class ArchivingInputStream extends ArchivingStream {
+        private final String titleNumber;
+        private final String date;
+        private final Path tempFile;
+        private final OutputStream archive;
+        private final MessageDigest digest;
+        private final byte[] single = new byte[1];
+        private boolean complete;
+        private boolean failed;
+        private boolean closed;
+
+        ArchivingInputStream(InputStream upstream, String titleNumber, String date)
+                throws IOException, NoSuchAlgorithmException {
+            super(upstream);
+            this.titleNumber = titleNumber;
+            this.date = date;
+            this.digest = MessageDigest.getInstance("SHA-256");
+            this.tempFile = objectsDir.resolve("tmp-" + UUID.randomUUID() + ".xml.gz");
+            this.archive = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile), BUFFER_SIZE), BUFFER_SIZE);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int n = read(single, 0, 1);
+            return n == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n;
+            try {
+                n = super.read(b, off, len);
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+            if (n > 0) {
+                digest.update(b, off, n);
+                archive.write(b, off, n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Skipped bytes still have to reach the archive
+            byte[] buffer = new byte[(int) Math.min(BUFFER_SIZE, Math.max(n, 0))];
+            long skipped = 0;
+            while (skipped < n) {
+                int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                if (read == -1) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void markComplete() {
+            complete = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            try {
+                if (complete && !failed) {
+                    // The parser may stop before the end of the document; the archive needs all of it
+                    byte[] buffer = new byte[BUFFER_SIZE];
+                    while (read(buffer, 0, buffer.length) != -1) {
+                        // drain
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Could not finish download of title {} for the archive: {}", titleNumber, e.getMessage());
+            } finally {
+                super.close();
+                archive.close();
+                commit();
+            }
+        }
+
+        private void commit() {
+            try {
+                if (!complete || failed) {
+                    Files.deleteIfExists(tempFile);
+                    return;
+                }
+
+                String hash = HexFormat.of().formatHex(digest.digest());
+                synchronized (refLock) {
+                    Path object = objectPath(hash);
+                    if (Files.exists(object)) {
+                        Files.delete(tempFile);
+                    } else {
+                        Files.move(tempFile, object, StandardCopyOption.ATOMIC_MOVE);
+                    }
+
+                    Path ref = refPath(titleNumber, date);
+                    Files.createDirectories(ref.getParent());
+                    String previous = Files.isRegularFile(ref) ? readRef(ref) : null;
+                    Path tempRef = ref.resolveSibling(ref.getFileName() + ".tmp");
+                    Files.writeString(tempRef, hash, StandardCharsets.US_ASCII);
+                    Files.move(tempRef, ref, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+                    // The new version supersedes the object this ref pointed at and earlier dates
+                    if (previous != null && !previous.equals(hash)) {
+                        deleteIfUnreferenced(previous);
+                    }
+                    dropEarlierRefs(titleNumber, date);
+                }
+
+                log.info("Archived title {} on {} as {}", titleNumber, date, hash);
+            } catch (IOException e) {
+                log.warn("Could not archive title {} on {}: {}", titleNumber, date, e.getMessage());
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ignored) {
+                    // Nothing else to clean up
+                }
+            }
+        }
+    }
+
+    /**
+     * InputStream view over a (memory-mapped) byte buffer
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.min(Math.max(n, 0), buffer.remaining());
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -1,35 +1,59 @@
 package com.ecfranalyzer.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ecfranalyzer.util.SingleFlight;
+import com.ecfranalyzer.util.StructureJsonReader;
+import com.ecfranalyzer.util.StructureJsonReader.StructureNode;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 @Slf4j
 public class EcfrApiService {
 
-    private static final String BASE_URL = "https://www.ecfr.gov";
+    private static final String BASE_URL = EcfrEndpoints.BASE_URL;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
 
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private DocumentArchiveService documentArchiveService;
+
+    @Autowired
+    private ConditionalRequestCache conditionalRequestCache;
+
+    @Autowired
+    private StructureJsonReader structureJsonReader;
+
     private static final String TITLES_ENDPOINT = BASE_URL + "/api/versioner/v1/titles";
 
+    /**
+     * Concurrent requests for the same URL share one upstream call. This is what collapses
+     * concurrent cache misses; {@code @Cacheable(sync = true)} would instead run the request
+     * inside Caffeine's map computation, holding a lock that other keys may need.
+     */
+    private final SingleFlight<String, Map<String, Object>> inFlight = new SingleFlight<>();
+
     private LocalDate latestAvailableDate = null;
 
-    private LocalDate fetchLatestAvailableDate() {
+    LocalDate fetchLatestAvailableDate() {
         if (latestAvailableDate != null) {
             return latestAvailableDate;
         }
@@ -48,42 +72,22 @@ public class EcfrApiService {
                 .toUriString();
 
         log.info("Fetching agencies from {}", url);
-        return restTemplate.getForObject(url, HashMap.class);
+        return inFlight.execute(url, () -> conditionalRequestCache.getForObject(url, HashMap.class));
     }
 
     @Cacheable("corrections")
     public Map<String, Object> getCorrections(String date, String title, String errorCorrectedDate) {
-        UriComponentsBuilder builder = UriComponentsBuilder
-                .fromHttpUrl(BASE_URL)
-                .path("/api/admin/v1/corrections.json");
-
-        if (date != null) {
-            builder.queryParam("date", date);
-        }
-
-        if (title != null) {
-            builder.queryParam("title", title);
-        }
-
-        if (errorCorrectedDate != null) {
-            builder.queryParam("error_corrected_date", errorCorrectedDate);
-        }
-
-        String url = builder.build().toUriString();
+        String url = EcfrEndpoints.corrections(date, title, errorCorrectedDate);
         log.info("Fetching corrections from {}", url);
-        return restTemplate.getForObject(url, HashMap.class);
+        return inFlight.execute(url, () -> conditionalRequestCache.getForObject(url, HashMap.class));
     }
 
     @Cacheable("corrections-by-title")
     public Map<String, Object> getCorrectionsByTitle(String title) {
-        String url = UriComponentsBuilder
-                .fromHttpUrl(BASE_URL)
-                .path("/api/admin/v1/corrections/title/{title}.json")
-                .buildAndExpand(title)
-                .toUriString();
+        String url = EcfrEndpoints.correctionsByTitle(title);
 
         log.info("Fetching corrections for title {} from {}", title, url);
-        return restTemplate.getForObject(url, HashMap.class);
+        return inFlight.execute(url, () -> conditionalRequestCache.getForObject(url, HashMap.class));
     }
 
     // Search Service endpoints
@@ -93,317 +97,70 @@ public class EcfrApiService {
                                                 String lastModifiedAfter, String lastModifiedOnOrAfter,
                                                 String lastModifiedBefore, String lastModifiedOnOrBefore,
                                                 Integer perPage, Integer page, String order, String paginateBy) {
-        UriComponentsBuilder builder = UriComponentsBuilder
-                .fromHttpUrl(BASE_URL)
-                .path("/api/search/v1/results");
-
-        if (query != null) {
-            builder.queryParam("query", query);
-        }
-
-        if (agencySlugs != null && agencySlugs.length > 0) {
-            for (String slug : agencySlugs) {
-                builder.queryParam("agency_slugs[]", slug);
-            }
-        }
-
-        if (date != null) {
-            builder.queryParam("date", date);
-        }
-
-        if (lastModifiedAfter != null) {
-            builder.queryParam("last_modified_after", lastModifiedAfter);
-        }
-
-        if (lastModifiedOnOrAfter != null) {
-            builder.queryParam("last_modified_on_or_after", lastModifiedOnOrAfter);
-        }
-
-        if (lastModifiedBefore != null) {
-            builder.queryParam("last_modified_before", lastModifiedBefore);
-        }
-
-        if (lastModifiedOnOrBefore != null) {
-            builder.queryParam("last_modified_on_or_before", lastModifiedOnOrBefore);
-        }
-
-        if (perPage != null) {
-            builder.queryParam("per_page", perPage);
-        }
-
-        if (page != null) {
-            builder.queryParam("page", page);
-        }
-
-        if (order != null) {
-            builder.queryParam("order", order);
-        }
-
-        if (paginateBy != null) {
-            builder.queryParam("paginate_by", paginateBy);
-        }
-
-        String url = builder.build().toUriString();
+        String url = EcfrEndpoints.searchResults(query, agencySlugs, date, lastModifiedAfter, lastModifiedOnOrAfter,
+                lastModifiedBefore, lastModifiedOnOrBefore, perPage, page, order, paginateBy);
         log.info("Searching with query {} from {}", query, url);
-        return restTemplate.getForObject(url, HashMap.class);
+        return inFlight.execute(url, () -> restTemplate.getForObject(url, HashMap.class));
     }
 
     @Cacheable("search-count")
     public Map<String, Object> getSearchCount(String query, String[] agencySlugs, String date,
                                               String lastModifiedAfter, String lastModifiedOnOrAfter,
                                               String lastModifiedBefore, String lastModifiedOnOrBefore) {
-        UriComponentsBuilder builder = UriComponentsBuilder
-                .fromHttpUrl(BASE_URL)
-                .path("/api/search/v1/count");
-
-        if (query != null) {
-            builder.queryParam("query", query);
-        }
-
-        if (agencySlugs != null && agencySlugs.length > 0) {
-            for (String slug : agencySlugs) {
-                builder.queryParam("agency_slugs[]", slug);
-            }
-        }
-
-        if (date != null) {
-            builder.queryParam("date", date);
-        }
-
-        if (lastModifiedAfter != null) {
-            builder.queryParam("last_modified_after", lastModifiedAfter);
-        }
-
-        if (lastModifiedOnOrAfter != null) {
-            builder.queryParam("last_modified_on_or_after", lastModifiedOnOrAfter);
-        }
-
-        if (lastModifiedBefore != null) {
-            builder.queryParam("last_modified_before", lastModifiedBefore);
-        }
-
-        if (lastModifiedOnOrBefore != null) {
-            builder.queryParam("last_modified_on_or_before", lastModifiedOnOrBefore);
-        }
-
-        String url = builder.build().toUriString();
+        String url = EcfrEndpoints.search(EcfrEndpoints.SEARCH_COUNT, query, agencySlugs, date, lastModifiedAfter,
+                lastModifiedOnOrAfter, lastModifiedBefore, lastModifiedOnOrBefore).build().toUriString();
         log.info("Getting count for search {} from {}", query, url);
-        return restTemplate.getForObject(url, HashMap.class);
+        return inFlight.execute(url, () -> restTemplate.getForObject(url, HashMap.class));
     }
 
     @Cacheable("search-summary")
     public Map<String, Object> getSearchSummary(String query, String[] agencySlugs, String date,
                                                 String lastModifiedAfter, String lastModifiedOnOrAfter,
                                                 String lastModifiedBefore, String lastModifiedOnOrBefore) {
-        UriComponentsBuilder builder = UriComponentsBuilder
-                .fromHttpUrl(BASE_URL)
-                .path("/api/search/v1/summary");
-
-        if (query != null) {
-            builder.queryParam("query", query);
-        }
-
-        if (agencySlugs != null && agencySlugs.length > 0) {
-            for (String slug : agencySlugs) {
-                builder.queryParam("agency_slugs[]", slug);
-            }
-        }
-
-        if (date != null) {
-            builder.queryParam("date", date);
-        }
-
-        if (lastModifiedAfter != null) {
-            builder.queryParam("last_modified_after", lastModifiedAfter);
-        }
-
-        if (lastModifiedOnOrAfter != null) {
-            builder.queryParam("last_modified_on_or_after", lastModifiedOnOrAfter);
-        }
-
-        if (lastModifiedBefore != null) {
-            builder.queryParam("last_modified_before", lastModifiedBefore);
-        }
-
-        if (lastModifiedOnOrBefore != null) {
-            builder.queryParam("last_modified_on_or_before", lastModifiedOnOrBefore);
-        }
-
-        String url = builder.build().toUriString();
+        String url = EcfrEndpoints.search(EcfrEndpoints.SEARCH_SUMMARY, query, agencySlugs, date, lastModifiedAfter,
+                lastModifiedOnOrAfter, lastModifiedBefore, lastModifiedOnOrBefore).build().toUriString();
         log.info("Getting summary for search {} from {}", query, url);
-        return restTemplate.getForObject(url, HashMap.class);
+        return inFlight.execute(url, () -> restTemplate.getForObject(url, HashMap.class));
     }
 
     @Cacheable("counts-daily")
     public Map<String, Object> getCountsByDate(String query, String[] agencySlugs, String date,
                                                String lastModifiedAfter, String lastModifiedOnOrAfter,
                                                String lastModifiedBefore, String lastModifiedOnOrBefore) {
-        UriComponentsBuilder builder = UriComponentsBuilder
-                .fromHttpUrl(BASE_URL)
-                .path("/api/search/v1/counts/daily");
-
-        if (query != null) {
-            builder.queryParam("query", query);
-        }
-
-        if (agencySlugs != null && agencySlugs.length > 0) {
-            for (String slug : agencySlugs) {
-                builder.queryParam("agency_slugs[]", slug);
-            }
-        }
-
-        if (date != null) {
-            builder.queryParam("date", date);
-        }
-
-        if (lastModifiedAfter != null) {
-            builder.queryParam("last_modified_after", lastModifiedAfter);
-        }
-
-        if (lastModifiedOnOrAfter != null) {
-            builder.queryParam("last_modified_on_or_after", lastModifiedOnOrAfter);
-        }
-
-        if (lastModifiedBefore != null) {
-            builder.queryParam("last_modified_before", lastModifiedBefore);
-        }
-
-        if (lastModifiedOnOrBefore != null) {
-            builder.queryParam("last_modified_on_or_before", lastModifiedOnOrBefore);
-        }
-
-        String url = builder.build().toUriString();
+        String url = EcfrEndpoints.search(EcfrEndpoints.COUNTS_DAILY, query, agencySlugs, date, lastModifiedAfter,
+                lastModifiedOnOrAfter, lastModifiedBefore, lastModifiedOnOrBefore).build().toUriString();
         log.info("Getting daily counts for {} from {}", query, url);
-        return restTemplate.getForObject(url, HashMap.class);
+        return inFlight.execute(url, () -> restTemplate.getForObject(url, HashMap.class));
     }
 
     @Cacheable("counts-titles")
     public Map<String, Object> getCountsByTitle(String query, String[] agencySlugs, String date,
                                                 String lastModifiedAfter, String lastModifiedOnOrAfter,
                                                 String lastModifiedBefore, String lastModifiedOnOrBefore) {
-        UriComponentsBuilder builder = UriComponentsBuilder
-                .fromHttpUrl(BASE_URL)
-                .path("/api/search/v1/counts/titles");
-
-        if (query != null) {
-            builder.queryParam("query", query);
-        }
-
-        if (agencySlugs != null && agencySlugs.length > 0) {
-            for (String slug : agencySlugs) {
-                builder.queryParam("agency_slugs[]", slug);
-            }
-        }
-
-        if (date != null) {
-            builder.queryParam("date", date);
-        }
-
-        if (lastModifiedAfter != null) {
-            builder.queryParam("last_modified_after", lastModifiedAfter);
-        }
-
-        if (lastModifiedOnOrAfter != null) {
-            builder.queryParam("last_modified_on_or_after", lastModifiedOnOrAfter);
-        }
-
-        if (lastModifiedBefore != null) {
-            builder.queryParam("last_modified_before", lastModifiedBefore);
-        }
-
-        if (lastModifiedOnOrBefore != null) {
-            builder.queryParam("last_modified_on_or_before", lastModifiedOnOrBefore);
-        }
-
-        String url = builder.build().toUriString();
+        String url = EcfrEndpoints.search(EcfrEndpoints.COUNTS_TITLES, query, agencySlugs, date, lastModifiedAfter,
+                lastModifiedOnOrAfter, lastModifiedBefore, lastModifiedOnOrBefore).build().toUriString();
         log.info("Getting title counts for {} from {}", query, url);
-        return restTemplate.getForObject(url, HashMap.class);
+        return inFlight.execute(url, () -> restTemplate.getForObject(url, HashMap.class));
     }
 
     @Cacheable("counts-hierarchy")
     public Map<String, Object> getCountsByHierarchy(String query, String[] agencySlugs, String date,
                                                     String lastModifiedAfter, String lastModifiedOnOrAfter,
                                                     String lastModifiedBefore, String lastModifiedOnOrBefore) {
-        UriComponentsBuilder builder = UriComponentsBuilder
-                .fromHttpUrl(BASE_URL)
-                .path("/api/search/v1/counts/hierarchy");
-
-        if (query != null) {
-            builder.queryParam("query", query);
-        }
-
-        if (agencySlugs != null && agencySlugs.length > 0) {
-            for (String slug : agencySlugs) {
-                builder.queryParam("agency_slugs[]", slug);
-            }
-        }
-
-        if (date != null) {
-            builder.queryParam("date", date);
-        }
-
-        if (lastModifiedAfter != null) {
-            builder.queryParam("last_modified_after", lastModifiedAfter);
-        }
-
-        if (lastModifiedOnOrAfter != null) {
-            builder.queryParam("last_modified_on_or_after", lastModifiedOnOrAfter);
-        }
-
-        if (lastModifiedBefore != null) {
-            builder.queryParam("last_modified_before", lastModifiedBefore);
-        }
-
-        if (lastModifiedOnOrBefore != null) {
-            builder.queryParam("last_modified_on_or_before", lastModifiedOnOrBefore);
-        }
-
-        String url = builder.build().toUriString();
+        String url = EcfrEndpoints.search(EcfrEndpoints.COUNTS_HIERARCHY, query, agencySlugs, date, lastModifiedAfter,
+                lastModifiedOnOrAfter, lastModifiedBefore, lastModifiedOnOrBefore).build().toUriString();
         log.info("Getting hierarchy counts for {} from {}", query, url);
-        return restTemplate.getForObject(url, HashMap.class);
+        return inFlight.execute(url, () -> restTemplate.getForObject(url, HashMap.class));
     }
 
     @Cacheable("suggestions")
     public Map<String, Object> getSearchSuggestions(String query, String[] agencySlugs, String date,
                                                     String lastModifiedAfter, String lastModifiedOnOrAfter,
                                                     String lastModifiedBefore, String lastModifiedOnOrBefore) {
-        UriComponentsBuilder builder = UriComponentsBuilder
-                .fromHttpUrl(BASE_URL)
-                .path("/api/search/v1/suggestions");
-
-        if (query != null) {
-            builder.queryParam("query", query);
-        }
-
-        if (agencySlugs != null && agencySlugs.length > 0) {
-            for (String slug : agencySlugs) {
-                builder.queryParam("agency_slugs[]", slug);
-            }
-        }
-
-        if (date != null) {
-            builder.queryParam("date", date);
-        }
-
-        if (lastModifiedAfter != null) {
-            builder.queryParam("last_modified_after", lastModifiedAfter);
-        }
-
-        if (lastModifiedOnOrAfter != null) {
-            builder.queryParam("last_modified_on_or_after", lastModifiedOnOrAfter);
-        }
-
-        if (lastModifiedBefore != null) {
-            builder.queryParam("last_modified_before", lastModifiedBefore);
-        }
-
-        if (lastModifiedOnOrBefore != null) {
-            builder.queryParam("last_modified_on_or_before", lastModifiedOnOrBefore);
-        }
-
-        String url = builder.build().toUriString();
+        String url = EcfrEndpoints.search(EcfrEndpoints.SUGGESTIONS, query, agencySlugs, date, lastModifiedAfter,
+                lastModifiedOnOrAfter, lastModifiedBefore, lastModifiedOnOrBefore).build().toUriString();
         log.info("Getting suggestions for {} from {}", query, url);
-        return restTemplate.getForObject(url, HashMap.class);
+        return inFlight.execute(url, () -> restTemplate.getForObject(url, HashMap.class));
     }
 
     // Versioner Service endpoints
@@ -421,62 +178,128 @@ public class EcfrApiService {
         log.info("Getting ancestry for title {} on {} from {}", title, date, url);
 
         try {
-            return restTemplate.getForObject(url, HashMap.class);
+            return inFlight.execute(url, () -> restTemplate.getForObject(url, HashMap.class));
         } catch (Exception e) {
             log.error("Error getting ancestry: {}", e.getMessage());
             return new HashMap<>();
         }
     }
 
-    public String getFullDocument(String titleNumber) {
-        LocalDate useDate = fetchLatestAvailableDate();
+    /**
+     * Stream the full XML document for a title to a handler as it downloads,
+     * without buffering the document in memory. Documents already in the local
+     * archive are read from disk instead of being downloaded again; an archived
+     * document that fails to read is evicted and downloaded afresh.
+     * @param titleNumber The title number
+     * @param date The version date, or null for the latest available
+     * @param handler Consumes the response body; the stream is closed when it returns
+     * @return The handler's result, or null if the download or the handler failed
+     */
+    public <T> T streamFullDocument(String titleNumber, LocalDate date, DocumentStreamHandler<T> handler) {
+        LocalDate useDate = date != null ? date : fetchLatestAvailableDate();
         String formattedDate = useDate.format(DATE_FORMATTER);
 
+        Optional<Path> archived = documentArchiveService.find(titleNumber, formattedDate);
+        if (archived.isPresent()) {
+            log.info("Reading full document for title {} on {} from archive {}", titleNumber, formattedDate, archived.get());
+            try (InputStream body = documentArchiveService.open(archived.get())) {
+                return handler.handle(body);
+            } catch (Exception e) {
+                log.error("Error reading archived document for title {} on {}, downloading it again: {}",
+                        titleNumber, formattedDate, e.getMessage(), e);
+                documentArchiveService.evict(titleNumber, formattedDate);
+            }
+        }
+
         String url = String.format("%s/api/versioner/v1/full/%s/title-%s.xml", BASE_URL, formattedDate, titleNumber);
-        log.info("Getting full document for title {} on {} from {}", titleNumber, formattedDate, url);
+        log.info("Streaming full document for title {} on {} from {}", titleNumber, formattedDate, url);
 
         try {
-            return restTemplate.getForObject(url, String.class);
+            return restTemplate.execute(url, HttpMethod.GET, null, response -> {
+                try (DocumentArchiveService.ArchivingStream body =
+                             documentArchiveService.archiving(titleNumber, formattedDate, response.getBody())) {
+                    T result = handler.handle(body);
+                    body.markComplete();
+                    return result;
+                } catch (IOException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+            });
         } catch (Exception e) {
-            log.error("Error getting full document: {}", e.getMessage());
+            log.error("Error streaming full document for title {} on {}: {}", titleNumber, formattedDate,
+                    e.getMessage(), e);
             return null;
         }
     }
 
+    /**
+     * Read a title's archived full XML document, without downloading it when it is not archived
+     * @param titleNumber The title number
+     * @param date The version date, or null for the latest available
+     * @param handler Consumes the document; the stream is closed when it returns
+     * @return The handler's result, or null if the document is not archived or the handler failed
+     */
+    public <T> T readArchivedDocument(String titleNumber, LocalDate date, DocumentStreamHandler<T> handler) {
+        String formattedDate = (date != null ? date : fetchLatestAvailableDate()).format(DATE_FORMATTER);
+
+        Optional<Path> archived = documentArchiveService.find(titleNumber, formattedDate);
+        if (archived.isEmpty()) {
+            return null;
+        }
 
-    @Cacheable("structure")
-    public Map<String, Object> getStructure(String titleNumber) {
-        LocalDate useDate = fetchLatestAvailableDate();
+        try (InputStream body = documentArchiveService.open(archived.get())) {
+            return handler.handle(body);
+        } catch (Exception e) {
+            log.error("Error reading archived document for title {} on {}: {}", titleNumber, formattedDate,
+                    e.getMessage(), e);
+            // Let the next ingestion download it again
+            documentArchiveService.evict(titleNumber, formattedDate);
+            return null;
+        }
+    }
+
+    /**
+     * Consumer of a streamed response body
+     */
+    @FunctionalInterface
+    public interface DocumentStreamHandler<T> {
+        T handle(InputStream body) throws Exception;
+    }
+
+    /**
+     * Stream the structure of a title to a consumer as it downloads, node by node,
+     * without building the generic map tree
+     * @param titleNumber The title number
+     * @param date The version date, or null for the latest available
+     * @param consumer Receives each structure node, parents before children
+     * @return Number of nodes read, or null if the download or parsing failed
+     */
+    public Integer streamStructure(String titleNumber, LocalDate date, Consumer<StructureNode> consumer) {
+        LocalDate useDate = date != null ? date : fetchLatestAvailableDate();
         String formattedDate = useDate.format(DATE_FORMATTER);
 
-        String url = String.format("%s/api/versioner/v1/structure/%s/title-%s.json", BASE_URL, formattedDate, titleNumber);
-        log.info("Getting structure for title {} on {} from {}", titleNumber, formattedDate, url);
+        String url = EcfrEndpoints.structure(formattedDate, titleNumber);
+        log.info("Streaming structure for title {} on {} from {}", titleNumber, formattedDate, url);
 
         try {
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-
-            // Log the content type for debugging
-            String contentType = response.getHeaders().getContentType().toString();
-            log.info("Received content type: {}", contentType);
-
-            if (contentType.contains("application/json")) {
-                // Parse JSON into Map
-                ObjectMapper objectMapper = new ObjectMapper();
-                return objectMapper.readValue(response.getBody(), Map.class);
-            } else if (contentType.contains("application/octet-stream")) {
-                log.warn("Received binary/octet-stream response for title structure. Cannot process this response.");
-                return null; // Fallback or handle binary response as required
-            } else {
-                log.error("Unsupported content type: {}", contentType);
-                return null;
-            }
+            return restTemplate.execute(url, HttpMethod.GET, null, response -> {
+                MediaType contentType = response.getHeaders().getContentType();
+                if (contentType == null || !contentType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    log.error("Unsupported content type for title structure: {}", contentType);
+                    return null;
+                }
+                try (InputStream body = response.getBody()) {
+                    return structureJsonReader.read(body, consumer);
+                }
+            });
         } catch (Exception e) {
-            log.error("Error getting structure: {}", e.getMessage());
+            log.error("Error streaming structure: {}", e.getMessage());
             return null;
         }
     }
 
-
     @Cacheable("titles")
     public Map<String, Object> getAllTitles() {
         String url = UriComponentsBuilder
@@ -486,7 +309,7 @@ public class EcfrApiService {
                 .toUriString();
 
         log.info("Getting all titles from {}", url);
-        return restTemplate.getForObject(url, HashMap.class);
+        return inFlight.execute(url, () -> conditionalRequestCache.getForObject(url, HashMap.class));
     }
 
     @Cacheable("versions")
@@ -494,63 +317,12 @@ public class EcfrApiService {
                                            String issueOnOrAfter, String subtitle, String chapter,
                                            String subchapter, String part, String subpart, String section,
                                            String appendix) {
-        UriComponentsBuilder builder = UriComponentsBuilder
-                .fromHttpUrl(BASE_URL)
-                .path("/api/versioner/v1/versions/title-{title}.json");
-
-        Map<String, String> uriParams = new HashMap<>();
-        uriParams.put("title", title);
-
-        String url = builder.buildAndExpand(uriParams).toUriString();
-
-        // Add query parameters
-        UriComponentsBuilder queryBuilder = UriComponentsBuilder.fromHttpUrl(url);
-
-        if (issueDate != null) {
-            queryBuilder.queryParam("issue_date", issueDate);
-        }
-
-        if (issueOnOrBefore != null) {
-            queryBuilder.queryParam("issue_date[]", issueOnOrBefore);
-        }
-
-        if (issueOnOrAfter != null) {
-            queryBuilder.queryParam("issue_date[]", issueOnOrAfter);
-        }
-
-        if (subtitle != null) {
-            queryBuilder.queryParam("subtitle", subtitle);
-        }
-
-        if (chapter != null) {
-            queryBuilder.queryParam("chapter", chapter);
-        }
-
-        if (subchapter != null) {
-            queryBuilder.queryParam("subchapter", subchapter);
-        }
-
-        if (part != null) {
-            queryBuilder.queryParam("part", part);
-        }
-
-        if (subpart != null) {
-            queryBuilder.queryParam("subpart", subpart);
-        }
-
-        if (section != null) {
-            queryBuilder.queryParam("section", section);
-        }
-
-        if (appendix != null) {
-            queryBuilder.queryParam("appendix", appendix);
-        }
-
-        url = queryBuilder.toUriString();
+        String url = EcfrEndpoints.versions(title, issueDate, issueOnOrBefore, issueOnOrAfter, subtitle, chapter,
+                subchapter, part, subpart, section, appendix);
         log.info("Getting versions for title {} from {}", title, url);
 
         try {
-            return restTemplate.getForObject(url, HashMap.class);
+            return inFlight.execute(url, () -> restTemplate.getForObject(url, HashMap.class));
         } catch (Exception e) {
             log.error("Error getting versions: {}", e.getMessage());
             return new HashMap<>();
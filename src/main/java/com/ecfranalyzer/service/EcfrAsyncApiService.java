@@ -0,0 +1,248 @@
+package com.ecfranalyzer.service;
+
+import com.ecfranalyzer.util.AsyncConcurrencyLimiter;
+import com.ecfranalyzer.util.SingleFlight;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.utils.DateUtils;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientResponseException;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Non-blocking variant of {@link EcfrApiService} for fan-out queries.
+ * <p>
+ * Requests run on the Apache HttpClient 5 I/O reactor and complete a {@link CompletableFuture},
+ * so a single caller thread can drive many upstream calls at once. The number of requests in
+ * flight is capped by a non-blocking limiter; calls over the cap are queued, not rejected.
+ * Identical requests made while one is in flight join it instead of going upstream again, and
+ * responses are revalidated with the validators {@link ConditionalRequestCache} stores for the
+ * blocking client, so an unchanged resource costs a 304 on either client.
+ */
+@Service
+@Slf4j
+public class EcfrAsyncApiService {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {
+    };
+
+    @Autowired
+    private CloseableHttpAsyncClient ecfrAsyncHttpClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EcfrApiService ecfrApiService;
+
+    @Autowired
+    private ConditionalRequestCache conditionalRequestCache;
+
+    @Value("${ecfr.http.async.max-concurrent-requests:32}")
+    private int maxConcurrentRequests;
+
+    private AsyncConcurrencyLimiter limiter;
+
+    /**
+     * Concurrent requests for the same URL share one upstream call
+     */
+    private final SingleFlight<String, Map<String, Object>> inFlight = new SingleFlight<>();
+
+    @PostConstruct
+    public void init() {
+        limiter = new AsyncConcurrencyLimiter(maxConcurrentRequests);
+    }
+
+    // Admin Service endpoints
+
+    public CompletableFuture<Map<String, Object>> getCorrections(String date, String title, String errorCorrectedDate) {
+        return getJson(EcfrEndpoints.corrections(date, title, errorCorrectedDate));
+    }
+
+    public CompletableFuture<Map<String, Object>> getCorrectionsByTitle(String title) {
+        return getJson(EcfrEndpoints.correctionsByTitle(title));
+    }
+
+    // Search Service endpoints
+
+    public CompletableFuture<Map<String, Object>> getSearchResults(String query, String[] agencySlugs, String date,
+                                                                   String lastModifiedAfter, String lastModifiedOnOrAfter,
+                                                                   String lastModifiedBefore, String lastModifiedOnOrBefore,
+                                                                   Integer perPage, Integer page, String order, String paginateBy) {
+        return getJson(EcfrEndpoints.searchResults(query, agencySlugs, date, lastModifiedAfter, lastModifiedOnOrAfter,
+                lastModifiedBefore, lastModifiedOnOrBefore, perPage, page, order, paginateBy));
+    }
+
+    public CompletableFuture<Map<String, Object>> getSearchCount(String query, String[] agencySlugs, String date,
+                                                                 String lastModifiedAfter, String lastModifiedOnOrAfter,
+                                                                 String lastModifiedBefore, String lastModifiedOnOrBefore) {
+        return getJson(EcfrEndpoints.search(EcfrEndpoints.SEARCH_COUNT, query, agencySlugs, date, lastModifiedAfter,
+                lastModifiedOnOrAfter, lastModifiedBefore, lastModifiedOnOrBefore).build().toUriString());
+    }
+
+    public CompletableFuture<Map<String, Object>> getCountsByDate(String query, String[] agencySlugs, String date,
+                                                                  String lastModifiedAfter, String lastModifiedOnOrAfter,
+                                                                  String lastModifiedBefore, String lastModifiedOnOrBefore) {
+        return getJson(EcfrEndpoints.search(EcfrEndpoints.COUNTS_DAILY, query, agencySlugs, date, lastModifiedAfter,
+                lastModifiedOnOrAfter, lastModifiedBefore, lastModifiedOnOrBefore).build().toUriString());
+    }
+
+    public CompletableFuture<Map<String, Object>> getCountsByTitle(String query, String[] agencySlugs, String date,
+                                                                   String lastModifiedAfter, String lastModifiedOnOrAfter,
+                                                                   String lastModifiedBefore, String lastModifiedOnOrBefore) {
+        return getJson(EcfrEndpoints.search(EcfrEndpoints.COUNTS_TITLES, query, agencySlugs, date, lastModifiedAfter,
+                lastModifiedOnOrAfter, lastModifiedBefore, lastModifiedOnOrBefore).build().toUriString());
+    }
+
+    public CompletableFuture<Map<String, Object>> getCountsByHierarchy(String query, String[] agencySlugs, String date,
+                                                                       String lastModifiedAfter, String lastModifiedOnOrAfter,
+                                                                       String lastModifiedBefore, String lastModifiedOnOrBefore) {
+        return getJson(EcfrEndpoints.search(EcfrEndpoints.COUNTS_HIERARCHY, query, agencySlugs, date, lastModifiedAfter,
+                lastModifiedOnOrAfter, lastModifiedBefore, lastModifiedOnOrBefore).build().toUriString());
+    }
+
+    // Versioner Service endpoints
+
+    public CompletableFuture<Map<String, Object>> getVersions(String title, String issueDate, String issueOnOrBefore,
+                                                              String issueOnOrAfter, String subtitle, String chapter,
+                                                              String subchapter, String part, String subpart, String section,
+                                                              String appendix) {
+        return getJson(EcfrEndpoints.versions(title, issueDate, issueOnOrBefore, issueOnOrAfter, subtitle, chapter,
+                subchapter, part, subpart, section, appendix));
+    }
+
+    public CompletableFuture<Map<String, Object>> getStructure(String titleNumber) {
+        String date = ecfrApiService.fetchLatestAvailableDate().format(DATE_FORMATTER);
+        return getJson(EcfrEndpoints.structure(date, titleNumber));
+    }
+
+    /**
+     * Upstream requests currently running, published as a gauge
+     */
+    public int getRunningRequests() {
+        return limiter.getRunning();
+    }
+
+    /**
+     * Upstream requests waiting for a free slot, published as a gauge
+     */
+    public int getQueuedRequests() {
+        return limiter.getQueued();
+    }
+
+    private CompletableFuture<Map<String, Object>> getJson(String url) {
+        return inFlight.executeAsync(url, () -> limiter.submit(() -> execute(url)));
+    }
+
+    private CompletableFuture<Map<String, Object>> execute(String url) {
+        log.info("Requesting {}", url);
+
+        ConditionalRequestCache.ValidatedResponse stored = conditionalRequestCache.lookup(url);
+        SimpleRequestBuilder builder = SimpleRequestBuilder.get(url)
+                .addHeader(HttpHeaders.ACCEPT, "application/json")
+                // The async client does not decode content itself; see decode()
+                .addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        if (stored != null) {
+            if (stored.etag() != null) {
+                builder.addHeader(HttpHeaders.IF_NONE_MATCH, stored.etag());
+            }
+            if (stored.lastModified() > 0) {
+                builder.addHeader(HttpHeaders.IF_MODIFIED_SINCE,
+                        DateUtils.formatStandardDate(Instant.ofEpochMilli(stored.lastModified())));
+            }
+        }
+        SimpleHttpRequest request = builder.build();
+
+        CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+        ecfrAsyncHttpClient.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                try {
+                    result.complete(parse(url, response, stored));
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                log.error("Error requesting {}: {}", url, e.getMessage());
+                result.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+                result.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> parse(String url, SimpleHttpResponse response,
+                                      ConditionalRequestCache.ValidatedResponse stored) throws IOException {
+        String etag = headerValue(response, HttpHeaders.ETAG);
+        String lastModifiedHeader = headerValue(response, HttpHeaders.LAST_MODIFIED);
+        Instant lastModified = lastModifiedHeader != null ? DateUtils.parseStandardDate(lastModifiedHeader) : null;
+        long lastModifiedMillis = lastModified != null ? lastModified.toEpochMilli() : -1;
+
+        if (response.getCode() == HttpStatus.SC_NOT_MODIFIED && stored != null) {
+            return (Map<String, Object>) conditionalRequestCache.notModified(url, stored, etag, lastModifiedMillis);
+        }
+
+        byte[] body = response.getBodyBytes() != null ? response.getBodyBytes() : new byte[0];
+
+        if (response.getCode() < 200 || response.getCode() >= 300) {
+            throw new RestClientResponseException("Request to " + url + " failed",
+                    HttpStatusCode.valueOf(response.getCode()), response.getReasonPhrase(), null, body, null);
+        }
+
+        Map<String, Object> parsed;
+        try (InputStream in = decode(response.getFirstHeader(HttpHeaders.CONTENT_ENCODING), body)) {
+            parsed = objectMapper.readValue(in, JSON_OBJECT);
+        }
+        conditionalRequestCache.store(url, etag, lastModifiedMillis, parsed);
+        return parsed;
+    }
+
+    private static String headerValue(SimpleHttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header != null ? header.getValue() : null;
+    }
+
+    private InputStream decode(Header contentEncoding, byte[] body) throws IOException {
+        InputStream in = new ByteArrayInputStream(body);
+        if (contentEncoding == null) {
+            return in;
+        }
+        return switch (contentEncoding.getValue().trim().toLowerCase()) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(in);
+            case "deflate" -> new InflaterInputStream(in);
+            default -> in;
+        };
+    }
+}
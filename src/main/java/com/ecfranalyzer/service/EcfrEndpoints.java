@@ -0,0 +1,180 @@
+package com.ecfranalyzer.service;
+
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * URL builders for the eCFR API, shared by the blocking and the asynchronous clients
+ */
+final class EcfrEndpoints {
+
+    static final String BASE_URL = "https://www.ecfr.gov";
+
+    static final String SEARCH_RESULTS = "/api/search/v1/results";
+    static final String SEARCH_COUNT = "/api/search/v1/count";
+    static final String SEARCH_SUMMARY = "/api/search/v1/summary";
+    static final String COUNTS_DAILY = "/api/search/v1/counts/daily";
+    static final String COUNTS_TITLES = "/api/search/v1/counts/titles";
+    static final String COUNTS_HIERARCHY = "/api/search/v1/counts/hierarchy";
+    static final String SUGGESTIONS = "/api/search/v1/suggestions";
+
+    private EcfrEndpoints() {
+    }
+
+    static String corrections(String date, String title, String errorCorrectedDate) {
+        UriComponentsBuilder builder = UriComponentsBuilder
+                .fromHttpUrl(BASE_URL)
+                .path("/api/admin/v1/corrections.json");
+
+        if (date != null) {
+            builder.queryParam("date", date);
+        }
+
+        if (title != null) {
+            builder.queryParam("title", title);
+        }
+
+        if (errorCorrectedDate != null) {
+            builder.queryParam("error_corrected_date", errorCorrectedDate);
+        }
+
+        return builder.build().toUriString();
+    }
+
+    static String correctionsByTitle(String title) {
+        return UriComponentsBuilder
+                .fromHttpUrl(BASE_URL)
+                .path("/api/admin/v1/corrections/title/{title}.json")
+                .buildAndExpand(title)
+                .toUriString();
+    }
+
+    /**
+     * Search endpoint URL with the filters shared by all search service endpoints
+     * @param path One of the search endpoint paths above
+     */
+    static UriComponentsBuilder search(String path, String query, String[] agencySlugs, String date,
+                                       String lastModifiedAfter, String lastModifiedOnOrAfter,
+                                       String lastModifiedBefore, String lastModifiedOnOrBefore) {
+        UriComponentsBuilder builder = UriComponentsBuilder
+                .fromHttpUrl(BASE_URL)
+                .path(path);
+
+        if (query != null) {
+            builder.queryParam("query", query);
+        }
+
+        if (agencySlugs != null && agencySlugs.length > 0) {
+            for (String slug : agencySlugs) {
+                builder.queryParam("agency_slugs[]", slug);
+            }
+        }
+
+        if (date != null) {
+            builder.queryParam("date", date);
+        }
+
+        if (lastModifiedAfter != null) {
+            builder.queryParam("last_modified_after", lastModifiedAfter);
+        }
+
+        if (lastModifiedOnOrAfter != null) {
+            builder.queryParam("last_modified_on_or_after", lastModifiedOnOrAfter);
+        }
+
+        if (lastModifiedBefore != null) {
+            builder.queryParam("last_modified_before", lastModifiedBefore);
+        }
+
+        if (lastModifiedOnOrBefore != null) {
+            builder.queryParam("last_modified_on_or_before", lastModifiedOnOrBefore);
+        }
+
+        return builder;
+    }
+
+    static String searchResults(String query, String[] agencySlugs, String date,
+                                String lastModifiedAfter, String lastModifiedOnOrAfter,
+                                String lastModifiedBefore, String lastModifiedOnOrBefore,
+                                Integer perPage, Integer page, String order, String paginateBy) {
+        UriComponentsBuilder builder = search(SEARCH_RESULTS, query, agencySlugs, date,
+                lastModifiedAfter, lastModifiedOnOrAfter, lastModifiedBefore, lastModifiedOnOrBefore);
+
+        if (perPage != null) {
+            builder.queryParam("per_page", perPage);
+        }
+
+        if (page != null) {
+            builder.queryParam("page", page);
+        }
+
+        if (order != null) {
+            builder.queryParam("order", order);
+        }
+
+        if (paginateBy != null) {
+            builder.queryParam("paginate_by", paginateBy);
+        }
+
+        return builder.build().toUriString();
+    }
+
+    static String structure(String date, String titleNumber) {
+        return String.format("%s/api/versioner/v1/structure/%s/title-%s.json", BASE_URL, date, titleNumber);
+    }
+
+    static String versions(String title, String issueDate, String issueOnOrBefore,
+                           String issueOnOrAfter, String subtitle, String chapter,
+                           String subchapter, String part, String subpart, String section,
+                           String appendix) {
+        String url = UriComponentsBuilder
+                .fromHttpUrl(BASE_URL)
+                .path("/api/versioner/v1/versions/title-{title}.json")
+                .buildAndExpand(title)
+                .toUriString();
+
+        // Add query parameters
+        UriComponentsBuilder queryBuilder = UriComponentsBuilder.fromHttpUrl(url);
+
+        if (issueDate != null) {
+            queryBuilder.queryParam("issue_date", issueDate);
+        }
+
+        if (issueOnOrBefore != null) {
+            queryBuilder.queryParam("issue_date[]", issueOnOrBefore);
+        }
+
+        if (issueOnOrAfter != null) {
+            queryBuilder.queryParam("issue_date[]", issueOnOrAfter);
+        }
+
+        if (subtitle != null) {
+            queryBuilder.queryParam("subtitle", subtitle);
+        }
+
+        if (chapter != null) {
+            queryBuilder.queryParam("chapter", chapter);
+        }
+
+        if (subchapter != null) {
+            queryBuilder.queryParam("subchapter", subchapter);
+        }
+
+        if (part != null) {
+            queryBuilder.queryParam("part", part);
+        }
+
+        if (subpart != null) {
+            queryBuilder.queryParam("subpart", subpart);
+        }
+
+        if (section != null) {
+            queryBuilder.queryParam("section", section);
+        }
+
+        if (appendix != null) {
+            queryBuilder.queryParam("appendix", appendix);
+        }
+
+        return queryBuilder.toUriString();
+    }
+}
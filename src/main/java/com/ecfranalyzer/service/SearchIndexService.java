@@ -0,0 +1,138 @@
+package com.ecfranalyzer.service;
+
+import com.ecfranalyzer.model.analytics.ColumnarAnalyticsStore;
+import com.ecfranalyzer.model.dto.SearchHit;
+import com.ecfranalyzer.model.dto.SearchResults;
+import com.ecfranalyzer.util.FullTextQuery;
+import com.ecfranalyzer.util.TitleTextIndex;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local full-text search over ingested section text. Holds one {@link TitleTextIndex} per title,
+ * replaced whole whenever the title is ingested again, so searches never see a partial title
+ * and never call eCFR.
+ */
+@Service
+@Slf4j
+public class SearchIndexService {
+
+    private static final Comparator<SearchHit> BY_SCORE = Comparator.comparingDouble(SearchHit::score);
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Value("${ecfr.search.enabled:true}")
+    private boolean enabled;
+
+    private final Map<String, TitleTextIndex> indexesByTitleId = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isIndexed(String titleId) {
+        return indexesByTitleId.containsKey(titleId);
+    }
+
+    /**
+     * Make a title's index searchable, replacing any previous index of the title
+     */
+    public void publish(TitleTextIndex index) {
+        indexesByTitleId.put(index.getTitleId(), index);
+        dataVersionService.bump();
+        log.info("Indexed {} sections, {} terms ({} KB of postings) for title {}", index.sectionCount(),
+                index.termCount(), index.getPostingBytes() / 1024, index.getTitleNumber());
+    }
+
+    /**
+     * Publish a title's index unless one was published meanwhile, e.g. by a concurrent ingestion
+     */
+    public void publishIfAbsent(TitleTextIndex index) {
+        if (indexesByTitleId.putIfAbsent(index.getTitleId(), index) == null) {
+            dataVersionService.bump();
+            log.info("Indexed {} sections for title {} from the archive", index.sectionCount(), index.getTitleNumber());
+        }
+    }
+
+    /**
+     * Search section text
+     * @param query Query in {@link FullTextQuery} syntax
+     * @param agencyId Only search titles of this agency, or null
+     * @param titleId Only search this title, or null
+     * @param limit Maximum number of hits to return
+     * @return The best-scoring hits, highest first, and the total number of matching sections
+     * @throws IllegalArgumentException If the query is malformed
+     */
+    public SearchResults search(String query, String agencyId, String titleId, int limit) {
+        FullTextQuery.Node parsed = FullTextQuery.parse(query);
+        List<TitleTextIndex> indexes = indexesFor(agencyId, titleId);
+
+        // Weight each term by its inverse document frequency over the searched titles
+        int sections = indexes.stream().mapToInt(TitleTextIndex::sectionCount).sum();
+        Map<String, Double> weights = new HashMap<>();
+        PriorityQueue<SearchHit> best = new PriorityQueue<>(BY_SCORE);
+        int totalHits = 0;
+
+        for (TitleTextIndex index : indexes) {
+            TitleTextIndex.Matches matches = index.search(parsed, term -> weights.computeIfAbsent(term, t -> {
+                int docFreq = indexes.stream().mapToInt(i -> i.docFreq(t)).sum();
+                return docFreq > 0 ? Math.log(1 + (double) sections / docFreq) : 0;
+            }));
+            totalHits += matches.size();
+
+            for (int i = 0; i < matches.size(); i++) {
+                double score = matches.score(i);
+                if (best.size() == limit && score <= best.peek().score()) {
+                    continue;
+                }
+                int doc = matches.doc(i);
+                best.add(new SearchHit(index.sectionId(doc), index.sectionNumber(doc), index.sectionHeading(doc),
+                        index.getTitleId(), index.getTitleNumber(), score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+
+        List<SearchHit> hits = new ArrayList<>(best);
+        hits.sort(BY_SCORE.reversed());
+        return new SearchResults(query, totalHits, hits);
+    }
+
+    private List<TitleTextIndex> indexesFor(String agencyId, String titleId) {
+        if (titleId != null) {
+            TitleTextIndex index = indexesByTitleId.get(titleId);
+            return index != null ? List.of(index) : List.of();
+        }
+        if (agencyId == null) {
+            return List.copyOf(indexesByTitleId.values());
+        }
+
+        ColumnarAnalyticsStore store = analyticsService.snapshot().getColumns();
+        int agency = store.agencyOrdinal(agencyId);
+        List<TitleTextIndex> indexes = new ArrayList<>();
+        for (int title = 0; agency != ColumnarAnalyticsStore.NO_ORDINAL && title < store.titleCount(); title++) {
+            TitleTextIndex index = store.titleAgency(title) == agency ? indexesByTitleId.get(store.titleId(title)) : null;
+            if (index != null) {
+                indexes.add(index);
+            }
+        }
+        return indexes;
+    }
+}
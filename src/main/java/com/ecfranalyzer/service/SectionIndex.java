@@ -0,0 +1,74 @@
+package com.ecfranalyzer.service;
+
+import com.ecfranalyzer.model.Section;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * In-memory lookup of a title's sections by number, built once per title from a single load.
+ * Supports exact section numbers and, as a fallback, numbers that end with the requested one.
+ * Numbers are also kept reversed in sorted order, so a suffix lookup is a prefix range scan and
+ * the index holds one key per section rather than every suffix.
+ */
+class SectionIndex {
+
+    private final List<Section> sections;
+    private final Map<String, Section> byNumber = new HashMap<>();
+    // Reversed number -> position of its first section in load order
+    private final NavigableMap<String, Integer> byReversedNumber = new TreeMap<>();
+
+    SectionIndex(List<Section> sections) {
+        this.sections = sections;
+
+        for (int i = 0; i < sections.size(); i++) {
+            String number = sections.get(i).getNumber();
+            if (number == null || number.isEmpty()) {
+                continue;
+            }
+
+            // First section in load order wins, as with the original linear scan
+            byNumber.putIfAbsent(number, sections.get(i));
+            byReversedNumber.putIfAbsent(reverse(number), i);
+        }
+    }
+
+    List<Section> getSections() {
+        return sections;
+    }
+
+    /**
+     * Find the section with this number, or else the first section whose number ends with it
+     */
+    Optional<Section> find(String sectionNumber) {
+        if (sectionNumber == null || sectionNumber.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Section section = byNumber.get(sectionNumber);
+        if (section != null) {
+            return Optional.of(section);
+        }
+
+        // Numbers ending with the requested one are exactly those whose reversal starts with its reversal
+        String prefix = reverse(sectionNumber);
+        int first = -1;
+        for (Map.Entry<String, Integer> entry : byReversedNumber.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            if (first == -1 || entry.getValue() < first) {
+                first = entry.getValue();
+            }
+        }
+        return first == -1 ? Optional.empty() : Optional.of(sections.get(first));
+    }
+
+    private static String reverse(String value) {
+        return new StringBuilder(value).reverse().toString();
+    }
+}
@@ -0,0 +1,118 @@
+package com.ecfranalyzer.service;
+
+import com.ecfranalyzer.model.Section;
+import com.ecfranalyzer.model.Title;
+import com.ecfranalyzer.repository.IngestBatchWriter;
+import com.ecfranalyzer.repository.SectionRepository;
+import com.ecfranalyzer.util.StructureJsonReader.StructureNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Applies a title's versioner structure tree to its sections.
+ * <p>
+ * The title's existing sections are loaded into a map once, the structure is streamed node by node
+ * against that map, and only new or changed sections are written, in one bulk upsert.
+ */
+@Service
+@Slf4j
+public class StructureIngestService {
+
+    @Autowired
+    private SectionRepository sectionRepository;
+
+    @Autowired
+    private IngestBatchWriter ingestBatchWriter;
+
+    @Autowired
+    private EcfrApiService ecfrApiService;
+
+    /**
+     * Ingest the structure of a title, streamed from the versioner API
+     * @param title The title to ingest the structure of
+     * @param date The version date, or null for the latest available
+     * @param seen Records every section in the structure, changed or not
+     * @return Number of sections created or updated, or -1 if the structure could not be read
+     */
+    public int ingest(Title title, LocalDate date, IngestBatchWriter.SeenRows seen) {
+        Map<String, Section> sectionsById = new HashMap<>();
+        for (Section section : sectionRepository.findByTitleId(title.getId())) {
+            sectionsById.put(section.getId(), section);
+        }
+
+        Map<String, Section> changed = new HashMap<>();
+        Integer nodes = ecfrApiService.streamStructure(title.getTitleNumber(), date,
+                node -> applyNode(title, node, sectionsById, changed, seen));
+        if (nodes == null) {
+            return -1;
+        }
+
+        try (IngestBatchWriter.Batch batch = ingestBatchWriter.openBatch()) {
+            changed.values().forEach(batch::addSection);
+        }
+
+        log.info("Structure of title {} ({} nodes) touched {} of {} sections",
+                title.getTitleNumber(), nodes, changed.size(), sectionsById.size());
+        return changed.size();
+    }
+
+    private void applyNode(Title title, StructureNode node, Map<String, Section> sectionsById,
+                           Map<String, Section> changed, IngestBatchWriter.SeenRows seen) {
+        // Only create section objects for actual sections
+        if (!"section".equals(node.getType())) {
+            return;
+        }
+
+        String type = node.getType();
+        String label = Objects.requireNonNullElse(node.getLabel(), "");
+        String labelLevel = Objects.requireNonNullElse(node.getLabelLevel(), "");
+        String labelDescription = Objects.requireNonNullElse(node.getLabelDescription(), "");
+        String identifier = Objects.requireNonNullElse(node.getIdentifier(), "");
+        boolean reserved = node.isReserved();
+
+        // Generate a unique ID
+        String sectionId = title.getId() + "-" + identifier.replaceAll("[^a-zA-Z0-9]", "-");
+        Section section = sectionsById.get(sectionId);
+        seen.addSection(sectionId);
+
+        if (section == null) {
+            // Extract section number from label
+            String sectionNumber = label.replaceAll("^§\\s*", "");
+
+            section = Section.builder()
+                    .id(sectionId)
+                    .number(sectionNumber)
+                    .heading(labelDescription)
+                    .title(title)
+                    .type(type)
+                    .labelLevel(labelLevel)
+                    .labelDescription(labelDescription)
+                    .identifier(identifier)
+                    .reserved(reserved)
+                    .build();
+
+            sectionsById.put(sectionId, section);
+            changed.put(sectionId, section);
+        } else if (!Objects.equals(section.getType(), type)
+                || !Objects.equals(section.getLabelLevel(), labelLevel)
+                || !Objects.equals(section.getLabelDescription(), labelDescription)
+                || !Objects.equals(section.getIdentifier(), identifier)
+                || section.isReserved() != reserved) {
+            // Update existing section with structure information
+            section.setType(type);
+            section.setLabelLevel(labelLevel);
+            section.setLabelDescription(labelDescription);
+            section.setIdentifier(identifier);
+            section.setReserved(reserved);
+
+            changed.put(sectionId, section);
+        }
+    }
+}
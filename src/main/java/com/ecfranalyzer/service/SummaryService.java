@@ -6,7 +6,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class SummaryService {
@@ -21,16 +20,10 @@ public class SummaryService {
         StringBuilder summary = new StringBuilder();
 
         // Get top agencies by word count
-        List<WordCountResult> topAgenciesByWords = analyticsService.getWordCountsByAgency()
-                .stream()
-                .limit(5)
-                .collect(Collectors.toList());
+        List<WordCountResult> topAgenciesByWords = analyticsService.getTopAgenciesByWordCount(5);
 
         // Get top agencies by change frequency
-        List<ChangeFrequencyResult> topAgenciesByChanges = analyticsService.getChangeFrequencyByAgency()
-                .stream()
-                .limit(5)
-                .toList();
+        List<ChangeFrequencyResult> topAgenciesByChanges = analyticsService.getTopAgenciesByChangeFrequency(5);
 
         // Build summary text
         summary.append("# eCFR Analytics Summary (Effective Aggregation Date of 12/12/2020\n\n");
@@ -0,0 +1,108 @@
+package com.ecfranalyzer.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick multi-pattern matcher. All patterns are found in a single left-to-right
+ * scan of the text, independent of how many patterns were added.
+ * <p>
+ * Matching is case-sensitive; callers normalize case before adding patterns and searching.
+ * @param <T> Value reported for each matched pattern
+ */
+public class AhoCorasickMatcher<T> {
+
+    private final Node<T> root = new Node<>();
+    private boolean built;
+
+    /**
+     * Add a pattern. Empty patterns are ignored.
+     */
+    public void add(String pattern, T value) {
+        if (built) {
+            throw new IllegalStateException("Patterns cannot be added after build()");
+        }
+        if (pattern == null || pattern.isEmpty()) {
+            return;
+        }
+
+        Node<T> node = root;
+        for (int i = 0; i < pattern.length(); i++) {
+            node = node.next.computeIfAbsent(pattern.charAt(i), c -> new Node<>());
+        }
+        node.outputs.add(new Match<>(value, pattern.length()));
+    }
+
+    /**
+     * Compute failure links. Must be called once, after all patterns are added.
+     */
+    public AhoCorasickMatcher<T> build() {
+        Queue<Node<T>> queue = new ArrayDeque<>();
+        for (Node<T> child : root.next.values()) {
+            child.fail = root;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            Node<T> node = queue.poll();
+            for (Map.Entry<Character, Node<T>> entry : node.next.entrySet()) {
+                char c = entry.getKey();
+                Node<T> child = entry.getValue();
+
+                Node<T> fail = node.fail;
+                while (fail != root && !fail.next.containsKey(c)) {
+                    fail = fail.fail;
+                }
+                Node<T> target = fail.next.get(c);
+                child.fail = target != null && target != child ? target : root;
+
+                // Patterns ending at the failure node also end here
+                child.outputs.addAll(child.fail.outputs);
+                queue.add(child);
+            }
+        }
+
+        built = true;
+        return this;
+    }
+
+    /**
+     * Report every occurrence of every pattern in the text
+     */
+    public void search(CharSequence text, MatchHandler<T> handler) {
+        if (!built) {
+            throw new IllegalStateException("build() must be called before search()");
+        }
+
+        Node<T> node = root;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            while (node != root && !node.next.containsKey(c)) {
+                node = node.fail;
+            }
+            node = node.next.getOrDefault(c, root);
+
+            for (Match<T> match : node.outputs) {
+                handler.onMatch(match.value, i - match.length + 1, match.length);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface MatchHandler<T> {
+        void onMatch(T value, int start, int length);
+    }
+
+    private record Match<T>(T value, int length) {
+    }
+
+    private static class Node<T> {
+        private final Map<Character, Node<T>> next = new HashMap<>();
+        private final List<Match<T>> outputs = new ArrayList<>();
+        private Node<T> fail;
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecfranalyzer.util;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking limit on the number of concurrently running asynchronous tasks.
+ * <p>
+ * Tasks over the limit are queued rather than blocking the caller, and are started by whichever
+ * thread completes a running task. Only one thread starts queued tasks at a time, so tasks that
+ * complete synchronously loop instead of recursing.
+ */
+public class AsyncConcurrencyLimiter {
+
+    private final int maxConcurrent;
+    private final AtomicInteger running = new AtomicInteger();
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    public AsyncConcurrencyLimiter(int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be at least 1");
+        }
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * Start the task now if a slot is free, otherwise once one frees up
+     * @param task Starts the asynchronous work
+     * @return Completes with the task's result
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        pending.add(() -> start(task, result));
+        drain();
+        return result;
+    }
+
+    public int getRunning() {
+        return running.get();
+    }
+
+    public int getQueued() {
+        return pending.size();
+    }
+
+    /**
+     * Start queued tasks while slots are free. A call made while another thread, or a task
+     * completing inside this loop, is already draining only asks that drain to run once more.
+     */
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+
+        int requests = 1;
+        do {
+            startPending();
+            requests = drainRequests.addAndGet(-requests);
+        } while (requests != 0);
+    }
+
+    private void startPending() {
+        while (!pending.isEmpty() && running.get() < maxConcurrent) {
+            Runnable next = pending.poll();
+            if (next == null) {
+                return;
+            }
+            running.incrementAndGet();
+            next.run();
+        }
+    }
+
+    private <T> void start(Supplier<CompletableFuture<T>> task, CompletableFuture<T> result) {
+        CompletableFuture<T> started;
+        try {
+            started = task.get();
+        } catch (Throwable e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+
+        started.whenComplete((value, error) -> {
+            running.decrementAndGet();
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+            drain();
+        });
+    }
+}
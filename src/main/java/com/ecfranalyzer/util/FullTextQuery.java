@@ -0,0 +1,231 @@
+package com.ecfranalyzer.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Parsed full-text query. Supported syntax:
+ * <ul>
+ *   <li>{@code word} matches sections containing the word; words are case-insensitive</li>
+ *   <li>{@code "some phrase"} matches the words in order and adjacent</li>
+ *   <li>{@code a b} and {@code a AND b} match both; {@code a OR b} matches either</li>
+ *   <li>{@code NOT a} and {@code -a} exclude sections containing {@code a}</li>
+ *   <li>parentheses group; AND binds tighter than OR</li>
+ * </ul>
+ * A word that tokenizes into several terms, such as {@code 1.2}, is matched as a phrase.
+ * Groups and negations nest at most {@value #MAX_DEPTH} deep.
+ */
+public final class FullTextQuery {
+
+    public static final int MAX_DEPTH = 32;
+
+    /**
+     * Query syntax tree
+     */
+    public sealed interface Node permits Phrase, And, Or, Not {
+    }
+
+    /**
+     * One term, or several terms that must appear adjacent and in order
+     */
+    public record Phrase(List<String> terms) implements Node {
+    }
+
+    public record And(List<Node> clauses) implements Node {
+    }
+
+    public record Or(List<Node> clauses) implements Node {
+    }
+
+    public record Not(Node clause) implements Node {
+    }
+
+    private final List<String> tokens;
+    private int position;
+    private int depth;
+
+    private FullTextQuery(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * @return The syntax tree of the query
+     * @throws IllegalArgumentException If the query is malformed, nested too deep or matches nothing positively
+     */
+    public static Node parse(String query) {
+        FullTextQuery parser = new FullTextQuery(lex(query));
+        Node root = parser.parseOr();
+        if (parser.position < parser.tokens.size()) {
+            throw new IllegalArgumentException("Unexpected '" + parser.tokens.get(parser.position) + "' in query");
+        }
+        if (root == null) {
+            throw new IllegalArgumentException("Query has no searchable terms");
+        }
+        requirePositive(root);
+        return root;
+    }
+
+    /**
+     * Split text into lower-case runs of letters and digits, the terms that are indexed and searched
+     */
+    public static void tokenize(CharSequence text, Consumer<String> consumer) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                consumer.accept(text.subSequence(start, i).toString().toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+
+    private Node parseOr() {
+        List<Node> clauses = new ArrayList<>();
+        addClause(clauses, parseAnd());
+        while (accept("OR")) {
+            addClause(clauses, parseAnd());
+        }
+        return combine(clauses, false);
+    }
+
+    private Node parseAnd() {
+        List<Node> clauses = new ArrayList<>();
+        while (position < tokens.size() && !peek("OR") && !peek(")")) {
+            accept("AND");
+            addClause(clauses, parseUnary());
+        }
+        return combine(clauses, true);
+    }
+
+    private Node parseUnary() {
+        if (accept("NOT") || accept("-")) {
+            descend();
+            Node clause = parseUnary();
+            depth--;
+            return clause != null ? new Not(clause) : null;
+        }
+        if (accept("(")) {
+            descend();
+            Node group = parseOr();
+            depth--;
+            if (!accept(")")) {
+                throw new IllegalArgumentException("Missing ')' in query");
+            }
+            return group;
+        }
+        if (position >= tokens.size()) {
+            throw new IllegalArgumentException("Query ends after an operator");
+        }
+
+        String token = tokens.get(position++);
+        String text = token.startsWith("\"") ? token.substring(1) : token;
+        List<String> terms = new ArrayList<>();
+        tokenize(text, terms::add);
+        return terms.isEmpty() ? null : new Phrase(List.copyOf(terms));
+    }
+
+    /**
+     * Bound the recursion of the parser, and of everything that later walks the tree
+     */
+    private void descend() {
+        if (++depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Query is nested more than " + MAX_DEPTH + " levels deep");
+        }
+    }
+
+    private static void addClause(List<Node> clauses, Node clause) {
+        if (clause != null) {
+            clauses.add(clause);
+        }
+    }
+
+    private static Node combine(List<Node> clauses, boolean and) {
+        if (clauses.isEmpty()) {
+            return null;
+        }
+        if (clauses.size() == 1) {
+            return clauses.get(0);
+        }
+        return and ? new And(List.copyOf(clauses)) : new Or(List.copyOf(clauses));
+    }
+
+    private boolean peek(String operator) {
+        return position < tokens.size() && tokens.get(position).equals(operator);
+    }
+
+    private boolean accept(String operator) {
+        if (peek(operator)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Every match must come from a positive clause: NOT is only allowed next to one in an AND
+     */
+    private static void requirePositive(Node node) {
+        if (node instanceof Not) {
+            throw new IllegalArgumentException("NOT needs a term to exclude from");
+        }
+        if (node instanceof Or or) {
+            or.clauses().forEach(FullTextQuery::requirePositive);
+        } else if (node instanceof And and) {
+            boolean positive = false;
+            for (Node clause : and.clauses()) {
+                if (!(clause instanceof Not)) {
+                    requirePositive(clause);
+                    positive = true;
+                }
+            }
+            if (!positive) {
+                throw new IllegalArgumentException("NOT needs a term to exclude from");
+            }
+        }
+    }
+
+    /**
+     * Split the query into words, quoted phrases (kept with their opening quote),
+     * parentheses, a leading '-' and the upper-case operators AND, OR and NOT
+     */
+    private static List<String> lex(String query) {
+        List<String> tokens = new ArrayList<>();
+        int length = query.length();
+        int i = 0;
+        while (i < length) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (c == '"') {
+                int end = query.indexOf('"', i + 1);
+                if (end < 0) {
+                    end = length;
+                }
+                tokens.add(query.substring(i, end));
+                i = Math.min(end + 1, length);
+            } else if (c == '-' && (i == 0 || Character.isWhitespace(query.charAt(i - 1)) || query.charAt(i - 1) == '(')) {
+                tokens.add("-");
+                i++;
+            } else {
+                int start = i;
+                while (i < length && !Character.isWhitespace(query.charAt(i))
+                        && query.charAt(i) != '(' && query.charAt(i) != ')' && query.charAt(i) != '"') {
+                    i++;
+                }
+                tokens.add(query.substring(start, i));
+            }
+        }
+        return tokens;
+    }
+}
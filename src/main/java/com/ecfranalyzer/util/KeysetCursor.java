@@ -0,0 +1,35 @@
+package com.ecfranalyzer.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset pagination: the sort key values of the last row of a page,
+ * URL-safe Base64 encoded.
+ */
+public final class KeysetCursor {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(String... keys) {
+        String joined = String.join(String.valueOf(SEPARATOR), keys);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor A cursor created by {@link #encode(String...)}
+     * @param keyCount Number of keys the cursor must hold
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static String[] decode(String cursor, int keyCount) {
+        String joined = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] keys = joined.split(String.valueOf(SEPARATOR), -1);
+        if (keys.length != keyCount) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return keys;
+    }
+}
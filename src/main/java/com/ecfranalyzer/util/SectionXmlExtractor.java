@@ -0,0 +1,251 @@
+package com.ecfranalyzer.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streaming (StAX) extractor for SECTION elements of an eCFR full-title XML document.
+ * Sections are emitted as soon as their closing tag is read, so memory use is bounded
+ * by the largest single section rather than by the whole title.
+ * <p>
+ * Word counts are accumulated in the same traversal: each text node is counted once and
+ * credited to the innermost open SECTION, PART or the document, and closed sections and
+ * parts roll their totals up into their parent, so the summary carries section, part and
+ * document totals from the one pass. Markup always separates words.
+ * The text of each section can be collected in the same pass for full-text indexing;
+ * it is only buffered when asked for.
+ */
+@Component
+public class SectionXmlExtractor {
+
+    private static final String PART = "PART";
+    private static final String SECTION = "SECTION";
+    private static final String SECTNO = "SECTNO";
+    private static final String SUBJECT = "SUBJECT";
+    private static final String HISTORY = "HISTORY";
+
+    @Autowired
+    private TextAnalysisUtil textAnalysisUtil;
+
+    private final XMLInputFactory inputFactory;
+
+    public SectionXmlExtractor() {
+        inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    /**
+     * Read the document and pass every SECTION to the consumer in document order
+     * @param input The XML document; its encoding is taken from the XML declaration
+     * @param consumer Receives each extracted section
+     * @param captureText Whether to collect each section's text; otherwise {@link ExtractedSection#getText()} is null
+     * @return Section count and word count of the whole document, and the totals of each part
+     */
+    public ExtractionSummary extract(InputStream input, Consumer<ExtractedSection> consumer, boolean captureText)
+            throws XMLStreamException {
+        XMLStreamReader xml = inputFactory.createXMLStreamReader(input);
+        int emitted = 0;
+        List<PartTotal> parts = new ArrayList<>();
+        int documentWords = 0;
+
+        try {
+            SectionState current = null;
+            int depth = 0;
+            int partDepth = -1;
+            String partNumber = null;
+            int partSections = 0;
+            int partWords = 0;
+
+            while (xml.hasNext()) {
+                int event = xml.next();
+
+                switch (event) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        depth++;
+                        String name = xml.getLocalName();
+                        if (current == null) {
+                            if (SECTION.equals(name)) {
+                                current = new SectionState(depth, captureText);
+                            } else if (PART.equals(name) && partDepth == -1) {
+                                partDepth = depth;
+                                partNumber = xml.getAttributeValue(null, "N");
+                                partSections = 0;
+                                partWords = 0;
+                            }
+                        } else if (current.captureTag == null) {
+                            // Like getElementsByTagName(...).item(0), only the first occurrence counts
+                            if ((SECTNO.equals(name) && current.number == null)
+                                    || (SUBJECT.equals(name) && current.subject == null)
+                                    || (HISTORY.equals(name) && current.history == null)) {
+                                current.beginCapture(name, depth);
+                            }
+                        }
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                        char[] chars = xml.getTextCharacters();
+                        int start = xml.getTextStart();
+                        int length = xml.getTextLength();
+                        int words = textAnalysisUtil.countWords(chars, start, length);
+
+                        if (current != null) {
+                            current.words += words;
+                            current.append(chars, start, length);
+                            current.appendText(chars, start, length);
+                        } else if (partDepth != -1) {
+                            partWords += words;
+                        } else {
+                            documentWords += words;
+                        }
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        if (current != null) {
+                            if (depth == current.captureDepth) {
+                                current.endCapture();
+                            } else if (depth == current.depth) {
+                                if (current.number != null && !current.number.isEmpty()) {
+                                    consumer.accept(current.toSection());
+                                    emitted++;
+                                }
+
+                                // Roll the section total up into its part, or the document
+                                if (partDepth != -1) {
+                                    partSections++;
+                                    partWords += current.words;
+                                } else {
+                                    documentWords += current.words;
+                                }
+                                current = null;
+                            }
+                        } else if (depth == partDepth) {
+                            documentWords += partWords;
+                            parts.add(new PartTotal(partNumber, partSections, partWords));
+                            partDepth = -1;
+                        }
+                        depth--;
+                    }
+                    default -> {
+                        // Comments, processing instructions and document events carry no section text
+                    }
+                }
+            }
+        } finally {
+            xml.close();
+        }
+
+        return new ExtractionSummary(emitted, documentWords, parts);
+    }
+
+    /**
+     * Totals for a whole extracted document
+     */
+    @Data
+    @AllArgsConstructor
+    public static class ExtractionSummary {
+        private int sectionCount;
+        private int wordCount;
+        private List<PartTotal> parts;
+
+        public int getPartCount() {
+            return parts.size();
+        }
+    }
+
+    /**
+     * Totals for one PART element, in document order
+     */
+    @Data
+    @AllArgsConstructor
+    public static class PartTotal {
+        /**
+         * The part's {@code N} attribute, or null if it has none
+         */
+        private String number;
+        private int sectionCount;
+        private int wordCount;
+    }
+
+    /**
+     * A SECTION element as read from the full-title XML
+     */
+    @Data
+    @AllArgsConstructor
+    public static class ExtractedSection {
+        private String number;
+        private String subject;
+        private String history;
+        private int wordCount;
+        private String text;
+    }
+
+    /**
+     * Mutable state for the SECTION currently being read
+     */
+    private static class SectionState {
+        private final int depth;
+        private int words;
+
+        private String number;
+        private String subject;
+        private String history;
+
+        private String captureTag;
+        private int captureDepth = -1;
+        private final StringBuilder capture = new StringBuilder();
+        private final StringBuilder text;
+
+        SectionState(int depth, boolean captureText) {
+            this.depth = depth;
+            this.text = captureText ? new StringBuilder() : null;
+        }
+
+        void beginCapture(String tag, int tagDepth) {
+            captureTag = tag;
+            captureDepth = tagDepth;
+            capture.setLength(0);
+        }
+
+        void append(char[] chars, int start, int length) {
+            if (captureTag != null) {
+                capture.append(chars, start, length);
+            }
+        }
+
+        void appendText(char[] chars, int start, int length) {
+            if (text != null) {
+                // Keep text nodes apart, as markup separates words
+                text.append(chars, start, length).append(' ');
+            }
+        }
+
+        void endCapture() {
+            String value = capture.toString().trim();
+            switch (captureTag) {
+                case SECTNO -> number = value;
+                case SUBJECT -> subject = value;
+                case HISTORY -> history = value;
+                default -> {
+                }
+            }
+            captureTag = null;
+            captureDepth = -1;
+        }
+
+        ExtractedSection toSection() {
+            return new ExtractedSection(number, subject != null ? subject : "", history, words,
+                    text != null ? text.toString() : null);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.ecfranalyzer.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Streaming (Jackson {@link JsonParser}) reader for versioner structure JSON.
+ * Each node of the tree is emitted as a typed event without building the generic map tree,
+ * so memory use is bounded by the depth of the tree rather than by its size.
+ * <p>
+ * A node is emitted when its {@code children} array starts, or when the node ends if it has none,
+ * so parents are always emitted before their children. Fields after {@code children} are not
+ * seen by the consumer; the versioner API always writes {@code children} last.
+ */
+@Component
+public class StructureJsonReader {
+
+    private final JsonFactory jsonFactory;
+
+    public StructureJsonReader(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Read the structure and pass every node to the consumer in document order
+     * @param input The structure JSON
+     * @param consumer Receives each node; the root node has depth 0
+     * @return Number of nodes read
+     */
+    public int read(InputStream input, Consumer<StructureNode> consumer) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Structure document is not a JSON object");
+            }
+            return readNode(parser, 0, consumer);
+        }
+    }
+
+    private int readNode(JsonParser parser, int depth, Consumer<StructureNode> consumer) throws IOException {
+        StructureNode node = new StructureNode();
+        node.setDepth(depth);
+        boolean emitted = false;
+        int count = 1;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            switch (field) {
+                case "type" -> node.setType(parser.getValueAsString());
+                case "identifier" -> node.setIdentifier(parser.getValueAsString());
+                case "label" -> node.setLabel(parser.getValueAsString());
+                case "label_level" -> node.setLabelLevel(parser.getValueAsString());
+                case "label_description" -> node.setLabelDescription(parser.getValueAsString());
+                case "reserved" -> node.setReserved(parser.getValueAsBoolean());
+                case "children" -> {
+                    if (!emitted) {
+                        consumer.accept(node);
+                        emitted = true;
+                    }
+                    if (value == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            if (parser.currentToken() == JsonToken.START_OBJECT) {
+                                count += readNode(parser, depth + 1, consumer);
+                            } else {
+                                parser.skipChildren();
+                            }
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (!emitted) {
+            consumer.accept(node);
+        }
+        return count;
+    }
+
+    /**
+     * One node of a title's structure tree
+     */
+    @Data
+    @NoArgsConstructor
+    public static class StructureNode {
+        private String type;
+        private String identifier;
+        private String label;
+        private String labelLevel;
+        private String labelDescription;
+        private boolean reserved;
+        private int depth;
+    }
+}
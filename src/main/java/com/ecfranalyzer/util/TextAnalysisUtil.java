@@ -16,58 +16,159 @@ public class TextAnalysisUtil {
             "a", "an", "the", "and", "but", "or", "for", "nor", "on", "at", "to", "from", "by", "in", "of", "with"
     ));
 
+    private static final int MAX_STOP_WORD_LENGTH = 4;
+
+    private static final long[] STOP_WORD_KEYS = COMMON_STOP_WORDS.stream()
+            .mapToLong(TextAnalysisUtil::stopWordKey)
+            .toArray();
+
     /**
      * Count words in a text string, excluding XML/HTML tags
      */
     public int countWords(String text) {
-        if (text == null || text.isEmpty()) {
-            return 0;
-        }
-
-        // Remove XML/HTML tags
-        String cleanText = text.replaceAll("<[^>]*>", " ");
-
-        // Replace multiple spaces with a single space
-        cleanText = cleanText.replaceAll("\\s+", " ").trim();
+        return analyze(text).getWords();
+    }
 
-        // Split by whitespace and count
-        if (cleanText.isEmpty()) {
-            return 0;
+    /**
+     * Count whitespace-separated words in a run of plain text without markup, such as an XML text node
+     */
+    public int countWords(char[] chars, int start, int length) {
+        int words = 0;
+        boolean inWord = false;
+
+        for (int i = start; i < start + length; i++) {
+            boolean whitespace = isWhitespace(chars[i]);
+            if (!whitespace && !inWord) {
+                words++;
+            }
+            inWord = !whitespace;
         }
 
-        return cleanText.split("\\s+").length;
+        return words;
     }
 
     /**
      * Count non-stop words in a text string
      */
     public int countNonStopWords(String text) {
-        if (text == null || text.isEmpty()) {
-            return 0;
+        return analyze(text).getNonStopWords();
+    }
+
+    /**
+     * Count words, non-stop words, sentences and syllables in a single pass, excluding XML/HTML tags.
+     * No intermediate strings are allocated. Words are whitespace-separated tokens, sentences are
+     * runs of text between '.', '!' and '?', and syllables are vowel groups per word.
+     */
+    public TextMetrics analyze(CharSequence text) {
+        if (text == null || text.length() == 0) {
+            return new TextMetrics();
         }
 
-        // Remove XML/HTML tags
-        String cleanText = text.replaceAll("<[^>]*>", " ");
+        int words = 0;
+        int nonStopWords = 0;
+        int syllables = 0;
+
+        int length = text.length();
+        boolean unclosedTag = false;
+
+        // Current word
+        boolean inWord = false;
+        int wordLength = 0;
+        long stopWordKey = 0;
+        int letters = 0;
+        int vowelGroups = 0;
+        boolean lastLetterVowel = false;
+        boolean lastLetterOpenedGroup = false;
+        boolean lastLetterE = false;
+
+        // Current sentence segment
+        int segment = 0;
+        int lastTextSegment = -1;
+        boolean segmentHasText = false;
+        boolean lastWasTerminator = false;
+
+        for (int i = 0; i <= length; i++) {
+            char c;
+            if (i == length) {
+                // Sentinel whitespace to finish the last word
+                c = ' ';
+            } else {
+                c = text.charAt(i);
+                if (c == '<' && !unclosedTag) {
+                    int close = indexOf(text, '>', i + 1);
+                    if (close >= 0) {
+                        // A tag counts as a single space
+                        i = close;
+                        c = ' ';
+                    } else {
+                        unclosedTag = true;
+                    }
+                }
+
+                if (c == '.' || c == '!' || c == '?') {
+                    if (!lastWasTerminator) {
+                        if (segmentHasText) {
+                            lastTextSegment = segment;
+                        }
+                        segment++;
+                        segmentHasText = false;
+                    }
+                    lastWasTerminator = true;
+                } else {
+                    segmentHasText = true;
+                    lastWasTerminator = false;
+                }
+            }
 
-        // Replace multiple spaces with a single space
-        cleanText = cleanText.replaceAll("\\s+", " ").trim();
+            if (isWhitespace(c)) {
+                if (inWord) {
+                    words++;
+                    if (wordLength > MAX_STOP_WORD_LENGTH || !isStopWordKey(stopWordKey)) {
+                        nonStopWords++;
+                    }
+                    if (letters > 0) {
+                        // A trailing 'e' that starts its own vowel group is silent
+                        int groups = lastLetterE && lastLetterOpenedGroup ? vowelGroups - 1 : vowelGroups;
+                        syllables += Math.max(groups, 1);
+                    }
+                    inWord = false;
+                }
+                continue;
+            }
 
-        // Split by whitespace and count non-stop words
-        if (cleanText.isEmpty()) {
-            return 0;
-        }
+            if (!inWord) {
+                inWord = true;
+                wordLength = 0;
+                stopWordKey = 0;
+                letters = 0;
+                vowelGroups = 0;
+                lastLetterVowel = false;
+                lastLetterOpenedGroup = false;
+                lastLetterE = false;
+            }
 
-        String[] words = cleanText.split("\\s+");
-        int count = 0;
+            char lower = Character.toLowerCase(c);
+            wordLength++;
+            if (wordLength <= MAX_STOP_WORD_LENGTH) {
+                stopWordKey = (stopWordKey << 16) | lower;
+            }
 
-        for (String word : words) {
-            String lowercaseWord = word.toLowerCase();
-            if (!COMMON_STOP_WORDS.contains(lowercaseWord)) {
-                count++;
+            if (lower >= 'a' && lower <= 'z') {
+                boolean vowel = isVowel(lower);
+                lastLetterOpenedGroup = vowel && !lastLetterVowel;
+                if (lastLetterOpenedGroup) {
+                    vowelGroups++;
+                }
+                lastLetterVowel = vowel;
+                lastLetterE = lower == 'e';
+                letters++;
             }
         }
 
-        return count;
+        if (segmentHasText) {
+            lastTextSegment = segment;
+        }
+        return new TextMetrics(words, nonStopWords, lastTextSegment + 1, syllables);
     }
 
     /**
@@ -100,23 +201,22 @@ public class TextAnalysisUtil {
             return 0;
         }
 
-        // Remove XML/HTML tags
-        String cleanText = text.replaceAll("<[^>]*>", " ");
+        TextMetrics metrics = analyze(text);
 
         // Count sentences (roughly)
-        int sentences = countSentences(cleanText);
+        int sentences = metrics.getSentences();
         if (sentences == 0) {
             return 0;
         }
 
         // Count words
-        int words = countWords(cleanText);
+        int words = metrics.getWords();
         if (words == 0) {
             return 0;
         }
 
         // Count syllables (rough approximation)
-        int syllables = countSyllables(cleanText);
+        int syllables = metrics.getSyllables();
 
         // Flesch Reading Ease = 206.835 - 1.015 × (words/sentences) - 84.6 × (syllables/words)
         double wordsPerSentence = (double) words / sentences;
@@ -125,60 +225,41 @@ public class TextAnalysisUtil {
         return 206.835 - (1.015 * wordsPerSentence) - (84.6 * syllablesPerWord);
     }
 
-    private int countSentences(String text) {
-        if (text == null || text.isEmpty()) {
-            return 0;
+    private static int indexOf(CharSequence text, char target, int from) {
+        for (int i = from; i < text.length(); i++) {
+            if (text.charAt(i) == target) {
+                return i;
+            }
         }
-
-        // Simple sentence counter - split by .!?
-        // This is a simplification; real sentence detection would need NLP
-        return text.split("[.!?]+").length;
+        return -1;
     }
 
-    private int countSyllables(String text) {
-        if (text == null || text.isEmpty()) {
-            return 0;
-        }
-
-        String[] words = text.split("\\s+");
-        int syllableCount = 0;
-
-        for (String word : words) {
-            syllableCount += countWordSyllables(word);
-        }
-
-        return syllableCount;
+    // Same character class as the regex \s
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
     }
 
-    private int countWordSyllables(String word) {
-        // Simple syllable counter - count vowel groups
-        // This is a rough approximation
-        word = word.toLowerCase().replaceAll("[^a-z]", "");
-
-        if (word.isEmpty()) {
-            return 0;
-        }
-
-        // Special case for words ending in 'e'
-        if (word.endsWith("e")) {
-            word = word.substring(0, word.length() - 1);
-        }
-
-        String vowels = "aeiouy";
-        int count = 0;
-        boolean lastWasVowel = false;
-
-        for (char c : word.toCharArray()) {
-            boolean isVowel = vowels.indexOf(c) >= 0;
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u' || c == 'y';
+    }
 
-            if (isVowel && !lastWasVowel) {
-                count++;
+    private static boolean isStopWordKey(long key) {
+        for (long stopWordKey : STOP_WORD_KEYS) {
+            if (stopWordKey == key) {
+                return true;
             }
-
-            lastWasVowel = isVowel;
         }
+        return false;
+    }
 
-        // Ensure at least one syllable per word
-        return Math.max(count, 1);
+    /**
+     * Pack up to four characters into a long so stop words can be matched without building a String
+     */
+    private static long stopWordKey(String word) {
+        long key = 0;
+        for (int i = 0; i < word.length(); i++) {
+            key = (key << 16) | word.charAt(i);
+        }
+        return key;
     }
-}
\ No newline at end of file
+}
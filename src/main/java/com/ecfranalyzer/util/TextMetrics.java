@@ -0,0 +1,18 @@
+package com.ecfranalyzer.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counts produced by a single pass of {@link TextAnalysisUtil#analyze(CharSequence)}
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TextMetrics {
+    private int words;
+    private int nonStopWords;
+    private int sentences;
+    private int syllables;
+}
@@ -0,0 +1,434 @@
+package com.ecfranalyzer.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Immutable inverted index over the section text of one title. Sections are documents with dense
+ * ids in ingestion order. Each term maps to a posting list of {@code (doc delta, frequency,
+ * position deltas...)} varints, so positions cost about a byte each and phrases can be verified
+ * without the original text.
+ */
+public final class TitleTextIndex {
+
+    private final String titleId;
+    private final String titleNumber;
+    private final String[] sectionIds;
+    private final String[] sectionNumbers;
+    private final String[] sectionHeadings;
+    private final Map<String, Postings> postingsByTerm;
+    private final long postingBytes;
+
+    private TitleTextIndex(Builder builder) {
+        titleId = builder.titleId;
+        titleNumber = builder.titleNumber;
+        sectionIds = builder.sectionIds.toArray(new String[0]);
+        sectionNumbers = builder.sectionNumbers.toArray(new String[0]);
+        sectionHeadings = builder.sectionHeadings.toArray(new String[0]);
+
+        Map<String, Postings> postings = new HashMap<>(builder.writers.size() * 4 / 3 + 1);
+        long bytes = 0;
+        for (Map.Entry<String, PostingWriter> entry : builder.writers.entrySet()) {
+            PostingWriter writer = entry.getValue();
+            postings.put(entry.getKey(), new Postings(Arrays.copyOf(writer.data, writer.length), writer.docFreq));
+            bytes += writer.length;
+        }
+        postingsByTerm = postings;
+        postingBytes = bytes;
+    }
+
+    public static Builder builder(String titleId, String titleNumber) {
+        return new Builder(titleId, titleNumber);
+    }
+
+    public String getTitleId() {
+        return titleId;
+    }
+
+    public String getTitleNumber() {
+        return titleNumber;
+    }
+
+    public int sectionCount() {
+        return sectionIds.length;
+    }
+
+    public int termCount() {
+        return postingsByTerm.size();
+    }
+
+    public long getPostingBytes() {
+        return postingBytes;
+    }
+
+    public String sectionId(int doc) {
+        return sectionIds[doc];
+    }
+
+    public String sectionNumber(int doc) {
+        return sectionNumbers[doc];
+    }
+
+    public String sectionHeading(int doc) {
+        return sectionHeadings[doc];
+    }
+
+    /**
+     * Number of sections containing the term
+     */
+    public int docFreq(String term) {
+        Postings postings = postingsByTerm.get(term);
+        return postings != null ? postings.docFreq : 0;
+    }
+
+    /**
+     * Evaluate a query against this title
+     * @param query Parsed query
+     * @param termWeight Score added per occurrence of a term, e.g. its inverse document frequency
+     * @return Matching sections in doc order with their scores
+     */
+    public Matches search(FullTextQuery.Node query, ToDoubleFunction<String> termWeight) {
+        if (query instanceof FullTextQuery.Phrase phrase) {
+            return phrase.terms().size() == 1
+                    ? matchTerm(phrase.terms().get(0), termWeight)
+                    : matchPhrase(phrase.terms(), termWeight);
+        }
+        if (query instanceof FullTextQuery.Or or) {
+            Matches result = Matches.EMPTY;
+            for (FullTextQuery.Node clause : or.clauses()) {
+                result = result.union(search(clause, termWeight));
+            }
+            return result;
+        }
+        if (query instanceof FullTextQuery.And and) {
+            Matches result = null;
+            List<FullTextQuery.Node> excluded = new ArrayList<>();
+            for (FullTextQuery.Node clause : and.clauses()) {
+                if (clause instanceof FullTextQuery.Not not) {
+                    excluded.add(not.clause());
+                } else {
+                    Matches matches = search(clause, termWeight);
+                    result = result == null ? matches : result.intersect(matches);
+                }
+                if (result != null && result.size == 0) {
+                    return Matches.EMPTY;
+                }
+            }
+            for (FullTextQuery.Node clause : excluded) {
+                result = result.exclude(search(clause, termWeight));
+            }
+            return result;
+        }
+        throw new IllegalArgumentException("NOT needs a term to exclude from");
+    }
+
+    private Matches matchTerm(String term, ToDoubleFunction<String> termWeight) {
+        Postings postings = postingsByTerm.get(term);
+        if (postings == null) {
+            return Matches.EMPTY;
+        }
+
+        double weight = termWeight.applyAsDouble(term);
+        int[] docs = new int[postings.docFreq];
+        double[] scores = new double[postings.docFreq];
+        VarIntReader reader = new VarIntReader(postings.data);
+        int doc = 0;
+        for (int i = 0; i < postings.docFreq; i++) {
+            doc += reader.next();
+            int freq = reader.next();
+            reader.skip(freq);
+            docs[i] = doc;
+            scores[i] = freq * weight;
+        }
+        return new Matches(docs, scores, docs.length);
+    }
+
+    private Matches matchPhrase(List<String> terms, ToDoubleFunction<String> termWeight) {
+        DecodedPostings[] decoded = new DecodedPostings[terms.size()];
+        double weight = 0;
+        for (int t = 0; t < terms.size(); t++) {
+            Postings postings = postingsByTerm.get(terms.get(t));
+            if (postings == null) {
+                return Matches.EMPTY;
+            }
+            decoded[t] = new DecodedPostings(postings);
+            weight += termWeight.applyAsDouble(terms.get(t));
+        }
+
+        // Walk the first term's docs and advance every other term to the same doc
+        DecodedPostings first = decoded[0];
+        int[] cursors = new int[decoded.length];
+        int[] docs = new int[first.docs.length];
+        double[] scores = new double[first.docs.length];
+        int size = 0;
+        candidates:
+        for (int i = 0; i < first.docs.length; i++) {
+            int doc = first.docs[i];
+            for (int t = 1; t < decoded.length; t++) {
+                int[] termDocs = decoded[t].docs;
+                while (cursors[t] < termDocs.length && termDocs[cursors[t]] < doc) {
+                    cursors[t]++;
+                }
+                if (cursors[t] == termDocs.length) {
+                    break candidates;
+                }
+                if (termDocs[cursors[t]] != doc) {
+                    continue candidates;
+                }
+            }
+
+            int occurrences = 0;
+            occurrence:
+            for (int p = first.offsets[i]; p < first.offsets[i + 1]; p++) {
+                int start = first.positions[p];
+                for (int t = 1; t < decoded.length; t++) {
+                    DecodedPostings term = decoded[t];
+                    int at = cursors[t];
+                    if (Arrays.binarySearch(term.positions, term.offsets[at], term.offsets[at + 1], start + t) < 0) {
+                        continue occurrence;
+                    }
+                }
+                occurrences++;
+            }
+            if (occurrences > 0) {
+                docs[size] = doc;
+                scores[size] = occurrences * weight;
+                size++;
+            }
+        }
+        return new Matches(docs, scores, size);
+    }
+
+    /**
+     * Sorted doc ids with a score each
+     */
+    public static final class Matches {
+        static final Matches EMPTY = new Matches(new int[0], new double[0], 0);
+
+        private final int[] docs;
+        private final double[] scores;
+        private final int size;
+
+        private Matches(int[] docs, double[] scores, int size) {
+            this.docs = docs;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int doc(int i) {
+            return docs[i];
+        }
+
+        public double score(int i) {
+            return scores[i];
+        }
+
+        Matches intersect(Matches other) {
+            int[] outDocs = new int[Math.min(size, other.size)];
+            double[] outScores = new double[outDocs.length];
+            int n = 0;
+            for (int i = 0, j = 0; i < size && j < other.size; ) {
+                if (docs[i] < other.docs[j]) {
+                    i++;
+                } else if (docs[i] > other.docs[j]) {
+                    j++;
+                } else {
+                    outDocs[n] = docs[i];
+                    outScores[n++] = scores[i++] + other.scores[j++];
+                }
+            }
+            return new Matches(outDocs, outScores, n);
+        }
+
+        Matches union(Matches other) {
+            int[] outDocs = new int[size + other.size];
+            double[] outScores = new double[outDocs.length];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || (i < size && docs[i] < other.docs[j])) {
+                    outDocs[n] = docs[i];
+                    outScores[n++] = scores[i++];
+                } else if (i == size || docs[i] > other.docs[j]) {
+                    outDocs[n] = other.docs[j];
+                    outScores[n++] = other.scores[j++];
+                } else {
+                    outDocs[n] = docs[i];
+                    outScores[n++] = scores[i++] + other.scores[j++];
+                }
+            }
+            return new Matches(outDocs, outScores, n);
+        }
+
+        Matches exclude(Matches other) {
+            int[] outDocs = new int[size];
+            double[] outScores = new double[size];
+            int n = 0;
+            int j = 0;
+            for (int i = 0; i < size; i++) {
+                while (j < other.size && other.docs[j] < docs[i]) {
+                    j++;
+                }
+                if (j == other.size || other.docs[j] != docs[i]) {
+                    outDocs[n] = docs[i];
+                    outScores[n++] = scores[i];
+                }
+            }
+            return new Matches(outDocs, outScores, n);
+        }
+    }
+
+    /**
+     * Accumulates sections of one title in order. Not thread-safe.
+     */
+    public static final class Builder {
+        private final String titleId;
+        private final String titleNumber;
+        private final List<String> sectionIds = new ArrayList<>();
+        private final List<String> sectionNumbers = new ArrayList<>();
+        private final List<String> sectionHeadings = new ArrayList<>();
+        private final Map<String, PostingWriter> writers = new HashMap<>();
+
+        private Builder(String titleId, String titleNumber) {
+            this.titleId = titleId;
+            this.titleNumber = titleNumber;
+        }
+
+        public Builder addSection(String sectionId, String number, String heading, CharSequence text) {
+            int doc = sectionIds.size();
+            sectionIds.add(sectionId);
+            sectionNumbers.add(number);
+            sectionHeadings.add(heading);
+
+            // Positions per term within this section, in first-occurrence order
+            Map<String, IntList> positions = new LinkedHashMap<>();
+            int[] position = {0};
+            FullTextQuery.tokenize(text, term -> positions.computeIfAbsent(term, t -> new IntList()).add(position[0]++));
+
+            positions.forEach((term, termPositions) ->
+                    writers.computeIfAbsent(term, t -> new PostingWriter()).add(doc, termPositions));
+            return this;
+        }
+
+        public TitleTextIndex build() {
+            return new TitleTextIndex(this);
+        }
+    }
+
+    /**
+     * Posting list of one term with its document frequency
+     */
+    private record Postings(byte[] data, int docFreq) {
+    }
+
+    /**
+     * Posting list decoded into parallel arrays, with {@code positions[offsets[i], offsets[i + 1])}
+     * holding the positions in {@code docs[i]}
+     */
+    private static final class DecodedPostings {
+        private final int[] docs;
+        private final int[] offsets;
+        private final int[] positions;
+
+        DecodedPostings(Postings postings) {
+            docs = new int[postings.docFreq];
+            offsets = new int[postings.docFreq + 1];
+            IntList allPositions = new IntList();
+            VarIntReader reader = new VarIntReader(postings.data);
+            int doc = 0;
+            for (int i = 0; i < postings.docFreq; i++) {
+                doc += reader.next();
+                docs[i] = doc;
+                int freq = reader.next();
+                int position = 0;
+                for (int p = 0; p < freq; p++) {
+                    position += reader.next();
+                    allPositions.add(position);
+                }
+                offsets[i + 1] = allPositions.size;
+            }
+            positions = allPositions.values;
+        }
+    }
+
+    private static final class PostingWriter {
+        private byte[] data = new byte[16];
+        private int length;
+        private int lastDoc;
+        private int docFreq;
+
+        void add(int doc, IntList positions) {
+            writeVarInt(doc - lastDoc);
+            writeVarInt(positions.size);
+            int last = 0;
+            for (int i = 0; i < positions.size; i++) {
+                writeVarInt(positions.values[i] - last);
+                last = positions.values[i];
+            }
+            lastDoc = doc;
+            docFreq++;
+        }
+
+        private void writeVarInt(int value) {
+            if (length + 5 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            while ((value & ~0x7F) != 0) {
+                data[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[length++] = (byte) value;
+        }
+    }
+
+    private static final class VarIntReader {
+        private final byte[] data;
+        private int offset;
+
+        VarIntReader(byte[] data) {
+            this.data = data;
+        }
+
+        int next() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[offset++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        void skip(int count) {
+            for (int i = 0; i < count; i++) {
+                while (data[offset++] < 0) {
+                    // Continuation bytes of the skipped varint
+                }
+            }
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}